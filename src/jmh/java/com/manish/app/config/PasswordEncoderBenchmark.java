@@ -0,0 +1,46 @@
+package com.manish.app.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCrypt cost per work factor, i.e. the CPU budget of a login, registration or password change.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PasswordEncoderBenchmark {
+
+    private static final String PASSWORD = "Password123!";
+
+    @Param({"8", "10", "12"})
+    public int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private String encoded;
+
+    @Setup
+    public void setUp() {
+        this.encoder = new BCryptPasswordEncoder(this.strength);
+        this.encoded = this.encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public String encode() {
+        return this.encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return this.encoder.matches(PASSWORD, this.encoded);
+    }
+}
@@ -0,0 +1,71 @@
+package com.manish.app.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Request throughput under I/O wait for a platform thread pool of Tomcat's default size, a
+ * larger platform pool and virtual threads. One operation is a burst of {@code burstSize}
+ * requests that each block for {@code blockingMillis}, standing in for a database round trip,
+ * so requests per second is the score times the burst size.
+ * <p>
+ * The {@code virtual} executor needs Java 21: {@code ./gradlew jmh -PjavaVersion=21
+ * -PjmhIncludes=ThreadingModelBenchmark}.
+ */
+@State(Scope.Benchmark)
+public class ThreadingModelBenchmark {
+
+    @Param({"platform-200", "platform-1000", "virtual"})
+    public String executor;
+
+    @Param({"2000"})
+    public int burstSize;
+
+    @Param({"10"})
+    public long blockingMillis;
+
+    private ExecutorService executorService;
+
+    @Setup
+    public void setUp() throws Exception {
+        if (this.executor.equals("virtual")) {
+            // looked up reflectively so the benchmarks still compile for Java 17
+            this.executorService = (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor")
+                .invoke(null);
+        } else {
+            final int threads = Integer.parseInt(this.executor.substring("platform-".length()));
+            this.executorService = Executors.newFixedThreadPool(threads);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.executorService.shutdownNow();
+    }
+
+    @Benchmark
+    public void burst() {
+        final CompletableFuture<?>[] requests = new CompletableFuture<?>[this.burstSize];
+        for (int i = 0; i < this.burstSize; i++) {
+            requests[i] = CompletableFuture.runAsync(this::blockingRequest, this.executorService);
+        }
+        CompletableFuture.allOf(requests).join();
+    }
+
+    private void blockingRequest() {
+        try {
+            Thread.sleep(this.blockingMillis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.manish.app.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Base64;
+
+/**
+ * Builds a {@link JwtService} outside of Spring on a freshly generated key pair.
+ */
+final class BenchmarkJwtServices {
+
+    private BenchmarkJwtServices() {
+    }
+
+    /**
+     * @param keyType key type and size, e.g. {@code RSA-2048}, {@code EC-256} or {@code Ed25519}
+     */
+    static JwtService create(final String keyType) throws Exception {
+        final String[] parts = keyType.split("-");
+        final String algorithm = parts[0];
+        final KeyPairGenerator generator = KeyPairGenerator.getInstance(algorithm);
+        if (parts.length > 1) {
+            generator.initialize(Integer.parseInt(parts[1]));
+        }
+        final Path keyDirectory = Files.createTempDirectory("jmh-keys");
+        writeKeyPair(keyDirectory, generator.generateKeyPair());
+
+        final JwtProperties properties = new JwtProperties();
+        properties.setAlgorithm(algorithm);
+        properties.setKeyDirectory(keyDirectory.toString());
+        properties.setWatchKeyDirectory(false);
+        final KeyUtils keyUtils = new KeyUtils(properties, event -> {
+        });
+        keyUtils.init();
+
+        final JwtService jwtService = new JwtService(keyUtils,
+            new VerifiedClaimsCache(100_000, new SimpleMeterRegistry()), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtService, "accessTokenExpiration", 900_000L);
+        return jwtService;
+    }
+
+    private static void writeKeyPair(final Path directory, final KeyPair keyPair) throws IOException {
+        Files.writeString(directory.resolve("bench" + KeyUtils.PRIVATE_KEY_SUFFIX),
+            pem("PRIVATE KEY", keyPair.getPrivate().getEncoded()));
+        Files.writeString(directory.resolve("bench" + KeyUtils.PUBLIC_KEY_SUFFIX),
+            pem("PUBLIC KEY", keyPair.getPublic().getEncoded()));
+    }
+
+    private static String pem(final String type, final byte[] encoded) {
+        return "-----BEGIN " + type + "-----\n"
+            + Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(encoded)
+            + "\n-----END " + type + "-----\n";
+    }
+}
@@ -0,0 +1,78 @@
+package com.manish.app.security;
+
+import com.manish.app.role.Role;
+import com.manish.app.role.RoleRegistry;
+import com.manish.app.user.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Full {@link JwtFilter#doFilterInternal} pass for an authenticated API call with a no-op chain,
+ * with the user either loaded through the user details service or rebuilt from the token.
+ */
+@State(Scope.Thread)
+public class JwtFilterBenchmark {
+
+    @Param({"RSA-2048", "EC-256", "Ed25519"})
+    public String keyType;
+
+    @Param({"false", "true"})
+    public boolean statelessPrincipal;
+
+    private JwtFilter jwtFilter;
+    private MockHttpServletRequest request;
+    private FilterChain chain;
+    private Authentication authentication;
+
+    @Setup
+    public void setUp() throws Exception {
+        final Set<Role> roles = Set.of(Role.builder().name("ROLE_USER").bitIndex(0).build());
+        RoleRegistry.load(roles);
+        final User user = User.builder()
+            .id("6f1c2a9e-4d1b-4c57-9a55-0c7d3f0e1b2a")
+            .email("john@mail.com")
+            .password("{noop}secret")
+            .enabled(true)
+            .roles(roles)
+            .roleMask(RoleRegistry.mask(roles))
+            .build();
+        final JwtService jwtService = BenchmarkJwtServices.create(this.keyType);
+        ReflectionTestUtils.setField(jwtService, "statelessPrincipal", this.statelessPrincipal);
+        final TokenDenylist denylist = new TokenDenylist(
+            Files.createTempFile("jwt-denylist", ".bin").toString(), 100_000);
+        denylist.init();
+        denylist.revoke(UUID.randomUUID().toString(), System.currentTimeMillis() + 900_000L);
+        this.jwtFilter = new JwtFilter(jwtService, username -> user,
+            new PrincipalVersionTracker(new JdbcTemplate(), 900_000L, this.statelessPrincipal), denylist, new SimpleMeterRegistry());
+
+        this.request = new MockHttpServletRequest("GET", "/api/v1/users/me");
+        this.request.setServletPath("/api/v1/users/me");
+        this.request.addHeader(HttpHeaders.AUTHORIZATION,
+            "Bearer " + jwtService.generateAccessToken(user));
+        this.chain = (req, res) ->
+            this.authentication = SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Benchmark
+    public Authentication authenticatedRequest() throws Exception {
+        this.jwtFilter.doFilterInternal(this.request, new MockHttpServletResponse(), this.chain);
+        SecurityContextHolder.clearContext();
+        return this.authentication;
+    }
+}
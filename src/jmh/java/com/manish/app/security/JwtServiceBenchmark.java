@@ -0,0 +1,44 @@
+package com.manish.app.security;
+
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Token signing and verification throughput per signature algorithm and key size.
+ * {@code verifyUncached} measures the raw signature check, {@code verifyCached} the filter path
+ * once a token has been seen by the node.
+ */
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    @Param({"RSA-2048", "RSA-3072", "EC-256", "Ed25519"})
+    public String keyType;
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        this.jwtService = BenchmarkJwtServices.create(this.keyType);
+        this.token = this.jwtService.generateAccessToken("john@mail.com");
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return this.jwtService.generateAccessToken("john@mail.com");
+    }
+
+    @Benchmark
+    public Claims verifyUncached() {
+        return this.jwtService.verifyClaims(this.token);
+    }
+
+    @Benchmark
+    public boolean verifyCached() {
+        return this.jwtService.isTokenValid(this.token, "john@mail.com");
+    }
+}
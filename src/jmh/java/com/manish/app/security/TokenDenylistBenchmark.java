@@ -0,0 +1,60 @@
+package com.manish.app.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+/**
+ * {@link TokenDenylist#isRevoked(String)} as called by the JWT filter on every request, for a
+ * token that is not revoked (the common case) and one that is.
+ */
+@State(Scope.Benchmark)
+public class TokenDenylistBenchmark {
+
+    @Param({"0", "1000", "100000"})
+    public int revokedTokens;
+
+    private Path file;
+    private TokenDenylist denylist;
+    private String validTokenId;
+    private String revokedTokenId;
+
+    @Setup
+    public void setUp() throws Exception {
+        this.file = Files.createTempFile("jwt-denylist", ".bin");
+        this.denylist = new TokenDenylist(this.file.toString(), 100_000);
+        this.denylist.init();
+        final long expiresAt = System.currentTimeMillis() + 3_600_000L;
+        this.revokedTokenId = UUID.randomUUID().toString();
+        if (this.revokedTokens > 0) {
+            this.denylist.revoke(this.revokedTokenId, expiresAt);
+        }
+        for (int i = 1; i < this.revokedTokens; i++) {
+            this.denylist.revoke(UUID.randomUUID().toString(), expiresAt);
+        }
+        this.validTokenId = UUID.randomUUID().toString();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        this.denylist.close();
+        Files.deleteIfExists(this.file);
+    }
+
+    @Benchmark
+    public boolean validToken() {
+        return this.denylist.isRevoked(this.validTokenId);
+    }
+
+    @Benchmark
+    public boolean revokedToken() {
+        return this.denylist.isRevoked(this.revokedTokenId);
+    }
+}
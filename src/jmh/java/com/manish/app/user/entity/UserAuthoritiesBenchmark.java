@@ -0,0 +1,41 @@
+package com.manish.app.user.entity;
+
+import com.manish.app.role.Role;
+import com.manish.app.role.RoleRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * {@link User#getAuthorities()}, called for every authenticated request and authorization check.
+ */
+@State(Scope.Benchmark)
+public class UserAuthoritiesBenchmark {
+
+    @Param({"1", "3"})
+    public int roleCount;
+
+    private User user;
+
+    @Setup
+    public void setUp() {
+        final Set<Role> roles = new HashSet<>();
+        for (int i = 0; i < this.roleCount; i++) {
+            roles.add(Role.builder().name("ROLE_" + i).bitIndex(i).build());
+        }
+        RoleRegistry.load(roles);
+        this.user = User.builder().email("john@mail.com").roles(roles).roleMask(RoleRegistry.mask(roles)).build();
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return this.user.getAuthorities();
+    }
+}
@@ -0,0 +1,34 @@
+package com.manish.app.validation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * Disposable email check run on every registration.
+ */
+@State(Scope.Benchmark)
+public class EmailDomainValidatorBenchmark {
+
+    private EmailDomainValidator validator;
+
+    @Setup
+    public void setUp() {
+        this.validator = new EmailDomainValidator(List.of("10minutemail", "20minutemail", "33mail",
+            "5ymail", "anonbox", "querrillamail", "mailinator", "maildrop", "moakt", "my10minutemail",
+            "throwawaymail", "trashmail", "temp-mail", "truemail", "yopmail"));
+    }
+
+    @Benchmark
+    public boolean allowedDomain() {
+        return this.validator.isValid("John.Doe@Example.com", null);
+    }
+
+    @Benchmark
+    public boolean blockedDomain() {
+        return this.validator.isValid("john@mailinator.com", null);
+    }
+}
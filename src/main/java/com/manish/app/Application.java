@@ -1,18 +1,12 @@
 package com.manish.app;
 
-import com.manish.app.role.Role;
+import com.manish.app.role.RoleCatalogInitializer;
 import com.manish.app.role.RoleRepository;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
-import java.time.LocalDateTime;
-import java.util.Optional;
-
-@Slf4j
 @EnableScheduling
 @SpringBootApplication
 public class Application {
@@ -21,20 +15,9 @@ public class Application {
 		SpringApplication.run(Application.class, args);
 	}
 
-	@Bean
-	public CommandLineRunner commandLineRunner(final RoleRepository roleRepository) {
-		return args -> {
-			final Optional<Role> userRole = roleRepository.findByName("ROLE_USER");
-			if (userRole.isEmpty()) {
-				final Role role = Role.builder()
-                        .name("ROLE_USER")
-						.createdBy("APP")
-						.createdDate(LocalDateTime.now())
-                        .build();
-                roleRepository.save(role);
-                log.info("Saved Role with ID: {}", role.getId());
-			}
-		};
+	@Bean(RoleCatalogInitializer.BEAN_NAME)
+	public RoleCatalogInitializer roleCatalogInitializer(final RoleRepository roleRepository) {
+		return new RoleCatalogInitializer(roleRepository);
 	}
 
 }
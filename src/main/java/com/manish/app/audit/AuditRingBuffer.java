@@ -0,0 +1,120 @@
+package com.manish.app.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded multi-producer, single-consumer queue of audit events over preallocated slots.
+ * <p>
+ * Every slot carries a sequence number that says whose turn it is: a producer claims the next
+ * position with one CAS once the slot's sequence shows the consumer is done with it, fills the
+ * slot's fields and publishes it by advancing the sequence; the consumer reads a slot once its
+ * sequence shows it published and hands it back by advancing the sequence one lap. Events are
+ * copied into the slots field by field, so publishing never allocates and never blocks; when the
+ * buffer is full the event is refused instead.
+ */
+public class AuditRingBuffer {
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final long[] occurredAt;
+    private final AuthEventType[] types;
+    private final String[] userIds;
+    private final String[] subjects;
+    private final AtomicLong producerPosition = new AtomicLong();
+    // only ever written by the consumer, read by size()
+    private volatile long consumerPosition;
+
+    /**
+     * Receives the events drained from the buffer, one call per event.
+     */
+    @FunctionalInterface
+    public interface EventHandler {
+        void onEvent(long occurredAt, AuthEventType type, String userId, String subject);
+    }
+
+    /**
+     * @param capacity number of slots, rounded up to a power of two
+     */
+    public AuditRingBuffer(final int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + capacity);
+        }
+        final int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        this.occurredAt = new long[size];
+        this.types = new AuthEventType[size];
+        this.userIds = new String[size];
+        this.subjects = new String[size];
+        for (int i = 0; i < size; i++) {
+            this.sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Appends an event without allocating or blocking.
+     *
+     * @return {@code false} if the buffer is full and the event was not recorded
+     */
+    public boolean offer(final long occurredAt, final AuthEventType type, final String userId, final String subject) {
+        long position = this.producerPosition.get();
+        while (true) {
+            final int index = (int) position & this.mask;
+            final long difference = this.sequences.get(index) - position;
+            if (difference == 0) {
+                if (this.producerPosition.compareAndSet(position, position + 1)) {
+                    this.occurredAt[index] = occurredAt;
+                    this.types[index] = type;
+                    this.userIds[index] = userId;
+                    this.subjects[index] = subject;
+                    // the volatile write publishes the fields above to the consumer
+                    this.sequences.set(index, position + 1);
+                    return true;
+                }
+                position = this.producerPosition.get();
+            } else if (difference < 0) {
+                // the slot still holds the event of the previous lap
+                return false;
+            } else {
+                position = this.producerPosition.get();
+            }
+        }
+    }
+
+    /**
+     * Hands up to {@code maxEvents} published events to the handler in publication order. Must
+     * only be called from one thread at a time.
+     *
+     * @return the number of events drained
+     */
+    public int drain(final EventHandler handler, final int maxEvents) {
+        long position = this.consumerPosition;
+        int drained = 0;
+        while (drained < maxEvents) {
+            final int index = (int) position & this.mask;
+            if (this.sequences.get(index) != position + 1) {
+                break;
+            }
+            handler.onEvent(this.occurredAt[index], this.types[index], this.userIds[index], this.subjects[index]);
+            this.userIds[index] = null;
+            this.subjects[index] = null;
+            this.sequences.set(index, position + this.mask + 1);
+            position++;
+            drained++;
+        }
+        this.consumerPosition = position;
+        return drained;
+    }
+
+    /**
+     * @return events claimed but not drained yet, approximate while producers are active
+     */
+    public int size() {
+        return (int) Math.max(0, Math.min(this.producerPosition.get() - this.consumerPosition, capacity()));
+    }
+
+    public int capacity() {
+        return this.mask + 1;
+    }
+}
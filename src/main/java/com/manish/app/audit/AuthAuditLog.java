@@ -0,0 +1,159 @@
+package com.manish.app.audit;
+
+import com.manish.app.common.id.BinaryUuid;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind audit trail of authentication and account events.
+ * <p>
+ * The request thread only copies the event into an {@link AuditRingBuffer}, which neither
+ * allocates nor blocks. A scheduled flush drains the buffer into {@code AUTH_AUDIT_EVENTS} in JDBC
+ * batches, so recording an event adds no write to the request. The buffer is the backpressure:
+ * while the database is slower than the events arrive, or unavailable, the undrained batch is
+ * kept and retried, the buffer fills, and once it is full further events are dropped and counted
+ * in {@code auth.audit.dropped} rather than slowing down logins.
+ */
+@Slf4j
+@Component
+public class AuthAuditLog {
+
+    private static final String INSERT_EVENT =
+        "insert into AUTH_AUDIT_EVENTS (OCCURRED_AT, EVENT_TYPE, USER_ID, SUBJECT) values (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditRingBuffer buffer;
+    private final int batchSize;
+    private final Counter published;
+    private final Counter dropped;
+    private final Counter written;
+    // a scheduled flush and the shutdown flush must not drain concurrently, the buffer has one consumer
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // the batch being written, reused for every flush and kept until it has been written
+    private final long[] batchOccurredAt;
+    private final AuthEventType[] batchTypes;
+    private final String[] batchUserIds;
+    private final String[] batchSubjects;
+    private int batchLength;
+    private final AuditRingBuffer.EventHandler batchAppender = this::appendToBatch;
+    private final BatchPreparedStatementSetter batchSetter = new BatchPreparedStatementSetter() {
+        @Override
+        public void setValues(final PreparedStatement ps, final int i) throws SQLException {
+            ps.setTimestamp(1, new Timestamp(batchOccurredAt[i]));
+            ps.setString(2, batchTypes[i].name());
+            if (batchUserIds[i] != null) {
+                ps.setBytes(3, BinaryUuid.toBytes(batchUserIds[i]));
+            } else {
+                ps.setNull(3, Types.BINARY);
+            }
+            ps.setString(4, batchSubjects[i]);
+        }
+
+        @Override
+        public int getBatchSize() {
+            return batchLength;
+        }
+    };
+
+    public AuthAuditLog(
+        final JdbcTemplate jdbcTemplate,
+        @Value("${app.audit.buffer-size:8192}") final int bufferSize,
+        @Value("${app.audit.batch-size:500}") final int batchSize,
+        final MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.buffer = new AuditRingBuffer(bufferSize);
+        this.batchSize = batchSize;
+        this.batchOccurredAt = new long[batchSize];
+        this.batchTypes = new AuthEventType[batchSize];
+        this.batchUserIds = new String[batchSize];
+        this.batchSubjects = new String[batchSize];
+        this.published = Counter.builder("auth.audit.published").register(meterRegistry);
+        this.dropped = Counter.builder("auth.audit.dropped")
+            .description("Events lost because the buffer was full").register(meterRegistry);
+        this.written = Counter.builder("auth.audit.written").register(meterRegistry);
+        Gauge.builder("auth.audit.buffered", this.buffer, AuditRingBuffer::size).register(meterRegistry);
+        Gauge.builder("auth.audit.capacity", this.buffer, AuditRingBuffer::capacity).register(meterRegistry);
+    }
+
+    /**
+     * Records an event without allocating or blocking; the event is dropped if the buffer is full.
+     *
+     * @param userId  id of the account, {@code null} if not known, e.g. for a failed login
+     * @param subject the email the event is about, as presented by the client
+     * @return {@code false} if the event was dropped
+     */
+    public boolean record(final AuthEventType type, final String userId, final String subject) {
+        if (this.buffer.offer(System.currentTimeMillis(), type, userId, subject)) {
+            this.published.increment();
+            return true;
+        }
+        this.dropped.increment();
+        return false;
+    }
+
+    /**
+     * Drains the buffer to the database in batches. A batch that fails to be written is kept and
+     * retried on the next flush, the buffer absorbs the events arriving meanwhile.
+     */
+    @Scheduled(fixedDelayString = "${app.audit.flush-interval:200}")
+    public void flush() {
+        this.flushLock.lock();
+        try {
+            do {
+                if (this.batchLength < this.batchSize) {
+                    this.buffer.drain(this.batchAppender, this.batchSize - this.batchLength);
+                }
+                if (this.batchLength == 0) {
+                    return;
+                }
+                try {
+                    this.jdbcTemplate.batchUpdate(INSERT_EVENT, this.batchSetter);
+                } catch (final RuntimeException e) {
+                    log.error("Failed to write {} audit events, retrying on next flush", this.batchLength, e);
+                    return;
+                }
+                this.written.increment(this.batchLength);
+                clearBatch();
+            } while (this.buffer.size() > 0);
+        } finally {
+            this.flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void appendToBatch(final long occurredAt, final AuthEventType type, final String userId,
+        final String subject) {
+        this.batchOccurredAt[this.batchLength] = occurredAt;
+        this.batchTypes[this.batchLength] = type;
+        this.batchUserIds[this.batchLength] = userId;
+        this.batchSubjects[this.batchLength] = subject;
+        this.batchLength++;
+    }
+
+    private void clearBatch() {
+        for (int i = 0; i < this.batchLength; i++) {
+            this.batchUserIds[i] = null;
+            this.batchSubjects[i] = null;
+        }
+        this.batchLength = 0;
+    }
+}
@@ -0,0 +1,16 @@
+package com.manish.app.audit;
+
+/**
+ * Security relevant account events recorded in {@code AUTH_AUDIT_EVENTS}.
+ */
+public enum AuthEventType {
+    LOGIN_SUCCEEDED,
+    LOGIN_FAILED,
+    TOKEN_REFRESHED,
+    REFRESH_FAILED,
+    PASSWORD_CHANGED,
+    PASSWORD_CHANGE_FAILED,
+    ACCOUNT_DEACTIVATED,
+    ACCOUNT_REACTIVATED,
+    ACCOUNT_DELETION_REQUESTED
+}
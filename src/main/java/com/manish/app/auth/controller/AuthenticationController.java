@@ -1,21 +1,28 @@
 package com.manish.app.auth.controller;
 
 import com.manish.app.auth.request.AuthenticationRequest;
+import com.manish.app.auth.request.LogoutRequest;
 import com.manish.app.auth.request.RefreshRequest;
 import com.manish.app.auth.request.RegistrationRequest;
 import com.manish.app.auth.response.AuthenticationResponse;
 import com.manish.app.auth.service.AuthenticationService;
+import com.manish.app.auth.throttle.LoginThrottle;
 import com.manish.app.config.ApiConstants;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping(ApiConstants.AUTH_BASE)
 @RequiredArgsConstructor
@@ -23,23 +30,27 @@ import org.springframework.web.bind.annotation.RestController;
 public class AuthenticationController {
 
     private final AuthenticationService authenticationService;
+    private final LoginThrottle loginThrottle;
 
+    // login and register hash passwords on the hashing pool, the request thread is released meanwhile
     @PostMapping(ApiConstants.AUTH_LOGIN)
-    public ResponseEntity<AuthenticationResponse> login(
+    public CompletableFuture<ResponseEntity<AuthenticationResponse>> login(
         @Valid
         @RequestBody
-        final AuthenticationRequest request) {
-        return ResponseEntity.ok(this.authenticationService.login(request));
+        final AuthenticationRequest request,
+        final HttpServletRequest httpRequest) {
+        // throttled attempts are rejected here, before any user lookup or password hashing
+        this.loginThrottle.checkAttempt(httpRequest.getRemoteAddr(), request.getEmail());
+        return this.authenticationService.login(request).thenApply(ResponseEntity::ok);
     }
 
     @PostMapping(ApiConstants.AUTH_REGISTER)
-    public ResponseEntity<Void> register(
+    public CompletableFuture<ResponseEntity<Void>> register(
         @Valid
         @RequestBody
         final RegistrationRequest request) {
-        this.authenticationService.register(request);
-
-        return ResponseEntity.status(HttpStatus.CREATED).build();
+        return this.authenticationService.register(request)
+            .thenApply(registered -> ResponseEntity.status(HttpStatus.CREATED).<Void>build());
     }
 
     @PostMapping(ApiConstants.AUTH_REFRESH)
@@ -50,5 +61,18 @@ public class AuthenticationController {
         return ResponseEntity.ok(this.authenticationService.refreshToken(request));
     }
 
+    @PostMapping(ApiConstants.AUTH_LOGOUT)
+    public ResponseEntity<Void> logout(
+        @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false)
+        final String authorization,
+        @RequestBody(required = false)
+        final LogoutRequest request) {
+        final String accessToken = authorization != null && authorization.startsWith("Bearer ")
+            ? authorization.substring(7)
+            : null;
+        this.authenticationService.logout(accessToken, request);
+        return ResponseEntity.noContent().build();
+    }
+
 
 }
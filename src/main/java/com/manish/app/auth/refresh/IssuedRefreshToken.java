@@ -0,0 +1,11 @@
+package com.manish.app.auth.refresh;
+
+/**
+ * A newly issued refresh token, the only place the raw token value exists on the server.
+ *
+ * @param token     opaque token handed to the client
+ * @param userId    id of the user the token belongs to
+ * @param userEmail email of the user the token belongs to
+ */
+public record IssuedRefreshToken(String token, String userId, String userEmail) {
+}
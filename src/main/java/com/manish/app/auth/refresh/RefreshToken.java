@@ -0,0 +1,62 @@
+package com.manish.app.auth.refresh;
+
+import com.manish.app.common.id.BinaryUuid;
+import com.manish.app.common.id.BinaryUuidJavaType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JavaType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persistent state of an issued refresh token. Only the SHA-256 hash of the opaque token is
+ * stored. Rows are written behind by {@link RefreshTokenStore} and read back when a token is not
+ * in its in-memory index, e.g. after a restart.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "REFRESH_TOKENS", indexes = {
+    @Index(name = "IDX_REFRESH_TOKENS_FAMILY", columnList = "FAMILY_ID"),
+    @Index(name = "IDX_REFRESH_TOKENS_USER", columnList = "USER_ID"),
+    @Index(name = "IDX_REFRESH_TOKENS_EXPIRES_AT", columnList = "EXPIRES_AT")
+})
+public class RefreshToken {
+
+    @Id
+    @Column(name = "TOKEN_HASH", length = 64)
+    private String tokenHash;
+
+    @Column(name = "FAMILY_ID", nullable = false, length = 36)
+    private String familyId;
+
+    @JavaType(BinaryUuidJavaType.class)
+    @Column(name = "USER_ID", nullable = false, length = BinaryUuid.BYTES)
+    private String userId;
+
+    @Column(name = "USER_EMAIL", nullable = false)
+    private String userEmail;
+
+    @Column(name = "ISSUED_AT", nullable = false)
+    private LocalDateTime issuedAt;
+
+    @Column(name = "EXPIRES_AT", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "USED_AT")
+    private LocalDateTime usedAt;
+
+    @Column(name = "REVOKED", nullable = false)
+    private boolean revoked;
+}
@@ -0,0 +1,410 @@
+package com.manish.app.auth.refresh;
+
+import com.manish.app.common.id.BinaryUuid;
+import com.manish.app.exception.BusinessException;
+import com.manish.app.exception.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Issues and rotates opaque refresh tokens.
+ * <p>
+ * A refresh token is 256 random bits; only its SHA-256 hash is kept. Every use rotates the token:
+ * the presented token is marked used and a new one is issued in the same family. Presenting a
+ * used token again means it was copied, so the whole family is revoked and the client has to log
+ * in again.
+ * <p>
+ * The request path only touches a concurrent in-memory index. New tokens, used markers and family
+ * revocations are queued and written to {@code REFRESH_TOKENS} in JDBC batches by a scheduled
+ * flush. Used tokens leave the index once written, so it holds roughly one token per live
+ * session. Tokens not in the index, e.g. after a restart, are read back from the table. With
+ * several nodes, a token is visible to, and its reuse detected by, other nodes only once it has
+ * been flushed, which is within one flush interval.
+ * <p>
+ * Revoking all tokens of a user revokes the families known at that moment: in memory through a
+ * per-user index of families, in the table by family id and, for families this node never loaded,
+ * by issue time. Families started afterwards, e.g. by the login following a password change, are
+ * not affected even though the revocation is written after them.
+ */
+@Slf4j
+@Component
+public class RefreshTokenStore {
+
+    private static final int TOKEN_BYTES = 32;
+    // a family may be indexed before its first token, younger ones are never dropped as tokenless
+    private static final long NEW_FAMILY_GRACE_MILLIS = 60_000;
+
+    private static final String UPSERT_TOKEN = """
+        insert into REFRESH_TOKENS
+            (TOKEN_HASH, FAMILY_ID, USER_ID, USER_EMAIL, ISSUED_AT, EXPIRES_AT, USED_AT, REVOKED)
+        values (?, ?, ?, ?, ?, ?, ?, ?)
+        on duplicate key update USED_AT = coalesce(USED_AT, values(USED_AT)), REVOKED = REVOKED or values(REVOKED)
+        """;
+    private static final String REVOKE_FAMILY = "update REFRESH_TOKENS set REVOKED = true where FAMILY_ID = ?";
+    private static final String REVOKE_USER = "update REFRESH_TOKENS set REVOKED = true where USER_ID = ? and (ISSUED_AT < ?";
+    private static final String DELETE_EXPIRED = "delete from REFRESH_TOKENS where EXPIRES_AT < ?";
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final long expirationMillis;
+    private final int batchSize;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private final ConcurrentHashMap<String, TokenState> tokens = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, FamilyState> families = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<FamilyState>> familiesByUser = new ConcurrentHashMap<>();
+    private final Queue<TokenState> dirtyTokens = new ConcurrentLinkedQueue<>();
+    private final Queue<String> revokedFamilies = new ConcurrentLinkedQueue<>();
+    private final Queue<UserRevocation> revokedUsers = new ConcurrentLinkedQueue<>();
+    // a scheduled flush and the shutdown flush must not interleave their batches
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Counter reuseDetected;
+
+    public RefreshTokenStore(
+        final RefreshTokenRepository refreshTokenRepository,
+        final JdbcTemplate jdbcTemplate,
+        @Value("${app.security.jwt.refresh-token-expiration}") final long expirationMillis,
+        @Value("${app.security.refresh-tokens.batch-size:500}") final int batchSize,
+        final MeterRegistry meterRegistry) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.expirationMillis = expirationMillis;
+        this.batchSize = batchSize;
+        this.reuseDetected = Counter.builder("auth.refresh-tokens.reuse-detected").register(meterRegistry);
+        Gauge.builder("auth.refresh-tokens.indexed", this.tokens, ConcurrentHashMap::size).register(meterRegistry);
+        Gauge.builder("auth.refresh-tokens.pending-writes", this.dirtyTokens, Queue::size).register(meterRegistry);
+    }
+
+    /**
+     * Starts a new token family for a fresh login.
+     */
+    public IssuedRefreshToken issue(final String userId, final String userEmail) {
+        final FamilyState family = new FamilyState(UUID.randomUUID().toString(), userId, userEmail);
+        this.families.put(family.id, family);
+        indexByUser(family);
+        return issue(family);
+    }
+
+    /**
+     * Exchanges a refresh token for a new one of the same family.
+     *
+     * @throws BusinessException with {@link ErrorCode#INVALID_REFRESH_TOKEN} if the token is unknown,
+     *                           expired or revoked, {@link ErrorCode#REFRESH_TOKEN_REUSED} if it was
+     *                           already used, in which case its family is revoked
+     */
+    public IssuedRefreshToken rotate(final String presentedToken) {
+        if (presentedToken == null || presentedToken.isBlank()) {
+            throw new BusinessException(ErrorCode.INVALID_REFRESH_TOKEN);
+        }
+        final TokenState token = lookup(hash(presentedToken));
+        if (token == null || token.family.revoked || token.expiresAt < System.currentTimeMillis()) {
+            throw new BusinessException(ErrorCode.INVALID_REFRESH_TOKEN);
+        }
+        if (!token.markUsed(System.currentTimeMillis())) {
+            this.reuseDetected.increment();
+            log.warn("Refresh token reuse detected, revoking token family {} of user {}",
+                token.family.id, token.family.userId);
+            revokeFamily(token.family);
+            throw new BusinessException(ErrorCode.REFRESH_TOKEN_REUSED);
+        }
+        markDirty(token);
+        return issue(token.family);
+    }
+
+    /**
+     * Revokes the family of the presented token, e.g. on logout. Unknown tokens are ignored.
+     */
+    public void revoke(final String presentedToken) {
+        if (presentedToken == null || presentedToken.isBlank()) {
+            return;
+        }
+        final TokenState token = lookup(hash(presentedToken));
+        if (token != null) {
+            revokeFamily(token.family);
+        }
+    }
+
+    /**
+     * Revokes every refresh token the user has been issued so far, e.g. after a password change.
+     * Tokens issued after the call stay valid.
+     */
+    public void revokeAll(final String userId) {
+        final long cutoff = System.currentTimeMillis();
+        final List<String> familyIds = new ArrayList<>();
+        final Set<FamilyState> userFamilies = this.familiesByUser.get(userId);
+        if (userFamilies != null) {
+            for (final FamilyState family : userFamilies) {
+                family.revoked = true;
+                familyIds.add(family.id);
+            }
+        }
+        this.revokedUsers.add(new UserRevocation(userId, cutoff, List.copyOf(familyIds)));
+    }
+
+    private IssuedRefreshToken issue(final FamilyState family) {
+        final byte[] random = new byte[TOKEN_BYTES];
+        this.secureRandom.nextBytes(random);
+        final String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+        final long now = System.currentTimeMillis();
+        final TokenState token = new TokenState(hash(rawToken), family, now, now + this.expirationMillis);
+        this.tokens.put(token.hash, token);
+        markDirty(token);
+        return new IssuedRefreshToken(rawToken, family.userId, family.userEmail);
+    }
+
+    private TokenState lookup(final String tokenHash) {
+        final TokenState indexed = this.tokens.get(tokenHash);
+        if (indexed != null) {
+            return indexed;
+        }
+        return this.refreshTokenRepository.findById(tokenHash)
+            .map(this::index)
+            .orElse(null);
+    }
+
+    private TokenState index(final RefreshToken row) {
+        final FamilyState family = this.families.computeIfAbsent(row.getFamilyId(), id -> {
+            final FamilyState loaded = new FamilyState(id, row.getUserId(), row.getUserEmail());
+            indexByUser(loaded);
+            return loaded;
+        });
+        if (row.isRevoked()) {
+            family.revoked = true;
+        }
+        final TokenState loaded = new TokenState(row.getTokenHash(), family, toMillis(row.getIssuedAt()),
+            toMillis(row.getExpiresAt()));
+        if (row.getUsedAt() != null) {
+            loaded.usedAt.set(toMillis(row.getUsedAt()));
+        }
+        final TokenState raced = this.tokens.putIfAbsent(loaded.hash, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    private void indexByUser(final FamilyState family) {
+        this.familiesByUser.compute(family.userId, (userId, userFamilies) -> {
+            final Set<FamilyState> updated = userFamilies != null ? userFamilies : ConcurrentHashMap.newKeySet();
+            updated.add(family);
+            return updated;
+        });
+    }
+
+    private void revokeFamily(final FamilyState family) {
+        family.revoked = true;
+        this.revokedFamilies.add(family.id);
+    }
+
+    private void markDirty(final TokenState token) {
+        if (token.dirty.compareAndSet(false, true)) {
+            this.dirtyTokens.add(token);
+        }
+    }
+
+    /**
+     * Writes queued token changes and revocations to the database in batches. Entries that fail
+     * to be written are queued again for the next flush.
+     */
+    @Scheduled(fixedDelayString = "${app.security.refresh-tokens.flush-interval:1000}")
+    public void flush() {
+        this.flushLock.lock();
+        try {
+            flushTokens();
+            flushRevocations(this.revokedFamilies, REVOKE_FAMILY, familyId -> familyId);
+            flushUserRevocations();
+        } finally {
+            this.flushLock.unlock();
+        }
+    }
+
+    private void flushTokens() {
+        final List<TokenState> batch = new ArrayList<>(this.batchSize);
+        while (true) {
+            batch.clear();
+            TokenState token;
+            while (batch.size() < this.batchSize && (token = this.dirtyTokens.poll()) != null) {
+                // cleared before the row is read so a concurrent change queues the token again
+                token.dirty.set(false);
+                batch.add(token);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                this.jdbcTemplate.batchUpdate(UPSERT_TOKEN, batch, batch.size(), (ps, state) -> {
+                    ps.setString(1, state.hash);
+                    ps.setString(2, state.family.id);
+                    ps.setBytes(3, BinaryUuid.toBytes(state.family.userId));
+                    ps.setString(4, state.family.userEmail);
+                    ps.setTimestamp(5, new Timestamp(state.issuedAt));
+                    ps.setTimestamp(6, new Timestamp(state.expiresAt));
+                    final long usedAt = state.usedAt.get();
+                    ps.setTimestamp(7, usedAt != 0 ? new Timestamp(usedAt) : null);
+                    ps.setBoolean(8, state.family.revoked);
+                });
+            } catch (final RuntimeException e) {
+                log.error("Failed to write {} refresh tokens, retrying on next flush", batch.size(), e);
+                batch.forEach(this::markDirty);
+                return;
+            }
+            for (final TokenState written : batch) {
+                // a used token is only needed again to detect reuse, the row answers that
+                if (written.usedAt.get() != 0 && !written.dirty.get()) {
+                    this.tokens.remove(written.hash, written);
+                }
+            }
+        }
+    }
+
+    private void flushRevocations(final Queue<String> pending, final String sql,
+        final Function<String, Object> toParameter) {
+        final List<String> batch = new ArrayList<>();
+        String id;
+        while ((id = pending.poll()) != null) {
+            batch.add(id);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            this.jdbcTemplate.batchUpdate(sql, batch, this.batchSize, (ps, value) -> ps.setObject(1, toParameter.apply(value)));
+        } catch (final RuntimeException e) {
+            log.error("Failed to write {} refresh token revocations, retrying on next flush", batch.size(), e);
+            pending.addAll(batch);
+        }
+    }
+
+    private void flushUserRevocations() {
+        UserRevocation revocation;
+        final List<UserRevocation> failed = new ArrayList<>();
+        while ((revocation = this.revokedUsers.poll()) != null) {
+            final List<Object> parameters = new ArrayList<>(revocation.familyIds().size() + 2);
+            parameters.add(BinaryUuid.toBytes(revocation.userId()));
+            parameters.add(new Timestamp(revocation.cutoff()));
+            parameters.addAll(revocation.familyIds());
+            final String sql = revocation.familyIds().isEmpty() ? REVOKE_USER + ")"
+                : REVOKE_USER + " or FAMILY_ID in ("
+                    + String.join(",", Collections.nCopies(revocation.familyIds().size(), "?")) + "))";
+            try {
+                this.jdbcTemplate.update(sql, parameters.toArray());
+            } catch (final RuntimeException e) {
+                log.error("Failed to revoke the refresh tokens of user {}, retrying on next flush",
+                    revocation.userId(), e);
+                failed.add(revocation);
+            }
+        }
+        this.revokedUsers.addAll(failed);
+    }
+
+    /**
+     * Drops expired tokens from the index and the table. A family is dropped with its last token.
+     */
+    @Scheduled(fixedDelayString = "${app.security.refresh-tokens.cleanup-interval:600000}")
+    public void removeExpired() {
+        final long now = System.currentTimeMillis();
+        this.tokens.values().removeIf(token -> token.expiresAt < now && !token.dirty.get());
+        final Set<String> liveFamilies = ConcurrentHashMap.newKeySet();
+        this.tokens.values().forEach(token -> liveFamilies.add(token.family.id));
+        this.families.keySet().retainAll(liveFamilies);
+        for (final String userId : this.familiesByUser.keySet()) {
+            this.familiesByUser.computeIfPresent(userId, (id, userFamilies) -> {
+                userFamilies.removeIf(family -> !liveFamilies.contains(family.id)
+                    && family.createdAt < now - NEW_FAMILY_GRACE_MILLIS);
+                return userFamilies.isEmpty() ? null : userFamilies;
+            });
+        }
+        final int deleted = this.jdbcTemplate.update(DELETE_EXPIRED, new Timestamp(now));
+        log.debug("Removed {} expired refresh tokens", deleted);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private static String hash(final String rawToken) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest(rawToken.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static long toMillis(final LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * A pending {@link #revokeAll(String)}: the families known at the time, and the time itself
+     * for families only the table knows.
+     */
+    private record UserRevocation(String userId, long cutoff, List<String> familyIds) {
+    }
+
+    private static final class FamilyState {
+        private final String id;
+        private final String userId;
+        private final String userEmail;
+        private final long createdAt = System.currentTimeMillis();
+        private volatile boolean revoked;
+
+        private FamilyState(final String id, final String userId, final String userEmail) {
+            this.id = id;
+            this.userId = userId;
+            this.userEmail = userEmail;
+        }
+    }
+
+    private static final class TokenState {
+        private final String hash;
+        private final FamilyState family;
+        private final long issuedAt;
+        private final long expiresAt;
+        private final AtomicBoolean dirty = new AtomicBoolean();
+        // epoch millis of the first use, 0 while unused
+        private final AtomicLong usedAt = new AtomicLong();
+
+        private TokenState(final String hash, final FamilyState family, final long issuedAt, final long expiresAt) {
+            this.hash = hash;
+            this.family = family;
+            this.issuedAt = issuedAt;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * @return {@code false} if the token had already been used
+         */
+        private boolean markUsed(final long now) {
+            return this.usedAt.compareAndSet(0, now);
+        }
+    }
+}
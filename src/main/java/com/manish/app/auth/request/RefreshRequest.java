@@ -1,5 +1,6 @@
 package com.manish.app.auth.request;
 
+import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -12,5 +13,6 @@ import lombok.Setter;
 @NoArgsConstructor
 @Builder
 public class RefreshRequest {
+    @NotBlank(message = "VALIDATION.REFRESH.TOKEN.NOT_BLANK")
     private String refreshToken;
 }
@@ -1,16 +1,21 @@
 package com.manish.app.auth.service;
 
 import com.manish.app.auth.request.AuthenticationRequest;
+import com.manish.app.auth.request.LogoutRequest;
 import com.manish.app.auth.request.RefreshRequest;
 import com.manish.app.auth.request.RegistrationRequest;
 import com.manish.app.auth.response.AuthenticationResponse;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface AuthenticationService {
 
-    AuthenticationResponse login(AuthenticationRequest request);
+    CompletableFuture<AuthenticationResponse> login(AuthenticationRequest request);
 
-    void register(RegistrationRequest request);
+    CompletableFuture<Void> register(RegistrationRequest request);
 
     AuthenticationResponse refreshToken(RefreshRequest request);
 
+    void logout(String accessToken, LogoutRequest request);
+
 }
@@ -1,6 +1,11 @@
 package com.manish.app.auth.service.impl;
 
+import com.manish.app.audit.AuthAuditLog;
+import com.manish.app.audit.AuthEventType;
+import com.manish.app.auth.refresh.IssuedRefreshToken;
+import com.manish.app.auth.refresh.RefreshTokenStore;
 import com.manish.app.auth.request.AuthenticationRequest;
+import com.manish.app.auth.request.LogoutRequest;
 import com.manish.app.auth.request.RefreshRequest;
 import com.manish.app.auth.request.RegistrationRequest;
 import com.manish.app.auth.response.AuthenticationResponse;
@@ -10,93 +15,208 @@ import com.manish.app.exception.ErrorCode;
 import com.manish.app.role.Role;
 import com.manish.app.role.RoleRepository;
 import com.manish.app.security.JwtService;
+import com.manish.app.security.PasswordHashingExecutor;
+import com.manish.app.security.RevokedTokenFeed;
+import com.manish.app.security.UserPrincipal;
+import com.manish.app.user.backfill.EmailNormalizationBackfill;
 import com.manish.app.user.entity.User;
 import com.manish.app.user.mapper.UserMapper;
 import com.manish.app.user.repository.UserRepository;
+import com.manish.app.user.service.UserService;
+import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityNotFoundException;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetailsChecker;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.HashSet;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AuthenticationServiceImpl implements AuthenticationService {
 
-    private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final UserMapper userMapper;
+    private final UserService userService;
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final RefreshTokenStore refreshTokenStore;
+    private final RevokedTokenFeed revokedTokenFeed;
+    private final EmailNormalizationBackfill emailNormalizationBackfill;
+    private final AuthAuditLog authAuditLog;
+    private final TransactionTemplate transactionTemplate;
+    private final UserDetailsChecker accountStatusChecker = new AccountStatusUserDetailsChecker();
+    // compared against when the email is unknown, so that the answer takes as long as for a known one
+    private String unknownUserPassword;
+
+    @PostConstruct
+    void hashUnknownUserPassword() {
+        this.unknownUserPassword = this.passwordEncoder.encode("userNotFoundPassword");
+    }
 
-
+    /**
+     * Loads the user on the calling thread and checks the password on the hashing pool; tokens are
+     * issued once the check completes, off the pool. Unknown emails and wrong passwords fail alike
+     * with {@link BadCredentialsException}, the account status is only revealed to a caller who
+     * knows the password.
+     */
     @Override
-    public AuthenticationResponse login(AuthenticationRequest request) {
-        final Authentication auth = this.authenticationManager.authenticate(
-            new UsernamePasswordAuthenticationToken(
-                request.getEmail(),
-                request.getPassword()
-            )
-        );
-
-        final User user = (User) auth.getPrincipal();
-        final String accessToken = jwtService.generateAccessToken(user.getUsername());
-        final String refreshToken = jwtService.generateRefreshToken(user.getUsername());
-        final String tokenType = "Bearer";
+    public CompletableFuture<AuthenticationResponse> login(AuthenticationRequest request) {
+        final Optional<User> found = findForLogin(request.getEmail());
+        final String storedPassword = found.map(User::getPassword).orElse(this.unknownUserPassword);
+        return this.passwordHashingExecutor
+            .submit(() -> this.passwordEncoder.matches(request.getPassword(), storedPassword))
+            .thenApply(matches -> {
+                final User user;
+                try {
+                    user = found.filter(candidate -> matches)
+                        .orElseThrow(() -> new BadCredentialsException("Bad credentials"));
+                    this.accountStatusChecker.check(user);
+                } catch (final AuthenticationException e) {
+                    this.authAuditLog.record(AuthEventType.LOGIN_FAILED, null, request.getEmail());
+                    throw e;
+                }
+                this.authAuditLog.record(AuthEventType.LOGIN_SUCCEEDED, user.getId(), user.getUsername());
+                upgradePasswordHashIfStale(user, request.getPassword());
+                final String accessToken = jwtService.generateAccessToken(user);
+                final String refreshToken = this.refreshTokenStore.issue(user.getId(), user.getUsername()).token();
+                final String tokenType = "Bearer";
+
+                return AuthenticationResponse.builder()
+                    .accessToken(accessToken)
+                    .refreshToken(refreshToken)
+                    .tokenType(tokenType)
+                    .build();
+            });
+    }
 
-        return AuthenticationResponse.builder()
-            .accessToken(accessToken)
-            .refreshToken(refreshToken)
-            .tokenType(tokenType)
-            .build();
+    private Optional<User> findForLogin(final String email) {
+        try {
+            return Optional.of(this.userService.loadUserForLogin(email));
+        } catch (final UsernameNotFoundException e) {
+            return Optional.empty();
+        }
     }
 
+    /**
+     * Validates the request on the calling thread, encodes the password on the hashing pool and
+     * saves the user once the hash is done, off the pool.
+     */
     @Override
-    @Transactional
-    public void register(RegistrationRequest request) {
+    public CompletableFuture<Void> register(RegistrationRequest request) {
         // validate the request data
         checkUserEmail(request.getEmail());
         checkUserPhoneNumber(request.getPhoneNumber());
         checkPasswords(request.getPassword(), request.getConfirmPassword());
 
-        final Role userRole = this.roleRepository.findByName("ROLE_USER")
-            .orElseThrow(() -> new EntityNotFoundException("Role user does not exist"));
+        return this.passwordHashingExecutor
+            .submit(() -> this.passwordEncoder.encode(request.getPassword()))
+            .thenAccept(encodedPassword -> this.transactionTemplate.executeWithoutResult(status -> {
+                final Role userRole = this.roleRepository.findByName("ROLE_USER")
+                    .orElseThrow(() -> new EntityNotFoundException("Role user does not exist"));
 
-        final Set<Role> roles = new HashSet<>();
-        roles.add(userRole);
+                final Set<Role> roles = new HashSet<>();
+                roles.add(userRole);
 
-        final User user = this.userMapper.toUser(request);
-        user.setRoles(roles);
-        log.debug("Saving user: {}", user);
-        this.userRepository.save(user);
+                final User user = this.userMapper.toUser(request, encodedPassword);
+                user.setRoles(roles);
+                log.debug("Saving user: {}", user);
+                this.userRepository.save(user);
 
-//        final List<User> users = List.of(user);
-//        userRole.setUsers(users);
+//                final List<User> users = List.of(user);
+//                userRole.setUsers(users);
 //
-//        this.roleRepository.save(userRole);
-
+//                this.roleRepository.save(userRole);
+            }));
     }
 
+    /**
+     * Rotates the refresh token and issues a new access token. The user is loaded through the
+     * cached user details, so a refresh costs one signature and no database write.
+     */
     @Override
     public AuthenticationResponse refreshToken(RefreshRequest request) {
-        final String newAccessToken = jwtService.refreshAccessToken(request.getRefreshToken());
+        final IssuedRefreshToken rotated;
+        try {
+            rotated = this.refreshTokenStore.rotate(request.getRefreshToken());
+        } catch (final BusinessException e) {
+            this.authAuditLog.record(AuthEventType.REFRESH_FAILED, null, null);
+            throw e;
+        }
+        final UserPrincipal user = (UserPrincipal) this.userService.loadUserByUsername(rotated.userEmail());
+        if (!user.isEnabled() || !user.isAccountNonLocked()) {
+            this.refreshTokenStore.revokeAll(rotated.userId());
+            this.authAuditLog.record(AuthEventType.REFRESH_FAILED, rotated.userId(), rotated.userEmail());
+            throw new BusinessException(ErrorCode.INVALID_REFRESH_TOKEN);
+        }
+        this.authAuditLog.record(AuthEventType.TOKEN_REFRESHED, rotated.userId(), rotated.userEmail());
+        final String newAccessToken = jwtService.generateAccessToken(user);
         final String tokenType = "Bearer";
         return AuthenticationResponse.builder()
             .accessToken(newAccessToken)
-            .refreshToken(request.getRefreshToken())
+            .refreshToken(rotated.token())
             .tokenType(tokenType)
             .build();
     }
 
+    /**
+     * Revokes the access token until it expires and, if given, the refresh token family. Tokens
+     * that do not verify are ignored, there is nothing to revoke.
+     */
+    @Override
+    public void logout(final String accessToken, final LogoutRequest request) {
+        if (accessToken != null) {
+            try {
+                this.jwtService.extractTokenId(accessToken).ifPresent(tokenId -> this.revokedTokenFeed.revoke(
+                    tokenId, this.jwtService.extractExpiration(accessToken).getTime()));
+            } catch (final RuntimeException e) {
+                log.debug("Ignoring invalid access token on logout: {}", e.getMessage());
+            }
+        }
+        if (request != null) {
+            this.refreshTokenStore.revoke(request.getRefreshToken());
+        }
+    }
+
+    /**
+     * Rehashes the just verified password in the background when its hash was produced with an
+     * outdated algorithm or work factor. Only the encoding runs on the hashing pool, the update is
+     * written once it completes, off the pool. Skipped when the hashing pool is busy, the next login
+     * will try again.
+     */
+    private void upgradePasswordHashIfStale(final User user, final String rawPassword) {
+        if (!this.passwordEncoder.upgradeEncoding(user.getPassword())) {
+            return;
+        }
+        try {
+            this.passwordHashingExecutor
+                .submit(() -> this.passwordEncoder.encode(rawPassword))
+                .thenAccept(encodedPassword -> this.userService.upgradePasswordHash(user, encodedPassword))
+                .exceptionally(e -> {
+                    log.warn("Password hash upgrade failed for user {}: {}", user.getId(), e.getMessage());
+                    return null;
+                });
+        } catch (final BusinessException e) {
+            log.debug("Hashing pool busy, deferring password hash upgrade for user {}", user.getId());
+        }
+    }
+
     private void checkUserEmail(final String email) {
-        final boolean emailExists = userRepository.existsByEmailIgnoreCase(email);
+        final boolean emailExists = userRepository.existsByEmailNormalized(User.normalizeEmail(email))
+            || (!emailNormalizationBackfill.isComplete() && userRepository.existsByEmailIgnoreCase(email));
         if (emailExists) {
             log.error("Email already exists: {}", email);
             throw new BusinessException(ErrorCode.EMAIL_ALREADY_EXISTS);
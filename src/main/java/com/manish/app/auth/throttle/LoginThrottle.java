@@ -0,0 +1,70 @@
+package com.manish.app.auth.throttle;
+
+import com.manish.app.exception.BusinessException;
+import com.manish.app.exception.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Per client IP and per email rate limit for login attempts, checked before the request reaches
+ * the authentication manager, so throttled attempts cost neither a database lookup nor a
+ * password hash.
+ */
+@Slf4j
+@Component
+public class LoginThrottle {
+
+    private final TokenBucketLimiter ipLimiter;
+    private final TokenBucketLimiter emailLimiter;
+    private final Counter rejectedByIp;
+    private final Counter rejectedByEmail;
+
+    public LoginThrottle(
+        @Value("${app.security.login-throttle.per-ip.capacity:20}") final int ipCapacity,
+        @Value("${app.security.login-throttle.per-ip.refill-period:3s}") final Duration ipRefillPeriod,
+        @Value("${app.security.login-throttle.per-email.capacity:5}") final int emailCapacity,
+        @Value("${app.security.login-throttle.per-email.refill-period:1m}") final Duration emailRefillPeriod,
+        @Value("${app.security.login-throttle.max-keys:100000}") final int maxKeys,
+        final MeterRegistry meterRegistry) {
+        this.ipLimiter = new TokenBucketLimiter(ipCapacity, ipRefillPeriod.toNanos(), maxKeys, System::nanoTime);
+        this.emailLimiter = new TokenBucketLimiter(emailCapacity, emailRefillPeriod.toNanos(), maxKeys, System::nanoTime);
+        this.rejectedByIp = Counter.builder("auth.login.throttled").tag("key", "ip").register(meterRegistry);
+        this.rejectedByEmail = Counter.builder("auth.login.throttled").tag("key", "email").register(meterRegistry);
+        Gauge.builder("auth.login.throttle.keys", this.ipLimiter, TokenBucketLimiter::trackedKeys)
+            .tag("key", "ip").register(meterRegistry);
+        Gauge.builder("auth.login.throttle.keys", this.emailLimiter, TokenBucketLimiter::trackedKeys)
+            .tag("key", "email").register(meterRegistry);
+    }
+
+    /**
+     * Consumes one attempt for the client address and one for the email.
+     *
+     * @throws BusinessException with {@link ErrorCode#TOO_MANY_LOGIN_ATTEMPTS} when either is exhausted
+     */
+    public void checkAttempt(final String clientIp, final String email) {
+        if (!this.ipLimiter.tryAcquire(clientIp)) {
+            this.rejectedByIp.increment();
+            log.info("Login attempt throttled for client {}", clientIp);
+            throw new BusinessException(ErrorCode.TOO_MANY_LOGIN_ATTEMPTS);
+        }
+        if (email != null && !this.emailLimiter.tryAcquire(email.toLowerCase(Locale.ROOT))) {
+            this.rejectedByEmail.increment();
+            log.info("Login attempt throttled for email {}", email);
+            throw new BusinessException(ErrorCode.TOO_MANY_LOGIN_ATTEMPTS);
+        }
+    }
+
+    @Scheduled(fixedDelay = 1000)
+    public void expireIdleBuckets() {
+        this.ipLimiter.advance();
+        this.emailLimiter.advance();
+    }
+}
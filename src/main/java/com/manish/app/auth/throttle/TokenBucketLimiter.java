@@ -0,0 +1,162 @@
+package com.manish.app.auth.throttle;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token buckets per key with bounded memory.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding the theoretical arrival time of the next
+ * request (GCRA, the token bucket expressed as one timestamp): a request is allowed if moving that
+ * time forward by one emission interval keeps it within the burst window, and the update is a
+ * single CAS, so there is no lock on the hot path.
+ * <p>
+ * At most {@code maxKeys} buckets are tracked individually. Keys arriving beyond that share a
+ * fixed array of striped overflow buckets, so spraying unique keys costs no memory and is still
+ * limited. Idle buckets are expired by a time wheel: every bucket sits in the slot of the tick at
+ * which it becomes full again, and {@link #advance()} sweeps the slots that have come due. An
+ * expired bucket is first marked {@link #RETIRED} by CAS, so a request that fetched it just before
+ * cannot charge it after removal; it sees the mark and retries on a fresh bucket.
+ */
+public class TokenBucketLimiter {
+
+    private static final int OVERFLOW_STRIPES = 1024;
+    private static final int WHEEL_SLOTS = 512;
+    private static final long RETIRED = Long.MIN_VALUE;
+
+    private final long emissionIntervalNanos;
+    private final long burstWindowNanos;
+    private final int maxKeys;
+    private final long tickNanos;
+    private final LongSupplier nanoClock;
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger trackedKeys = new AtomicInteger();
+    private final AtomicLong[] overflowBuckets = new AtomicLong[OVERFLOW_STRIPES];
+    @SuppressWarnings("unchecked")
+    private final Queue<String>[] wheel = new Queue[WHEEL_SLOTS];
+    private volatile long currentTick;
+
+    /**
+     * @param capacity        requests allowed in a burst
+     * @param refillPeriodNanos time to refill one request
+     * @param maxKeys         buckets tracked individually before keys fall back to shared stripes
+     * @param nanoClock       monotonic clock, {@link System#nanoTime()} outside of tests
+     */
+    public TokenBucketLimiter(final int capacity, final long refillPeriodNanos, final int maxKeys,
+        final LongSupplier nanoClock) {
+        this.emissionIntervalNanos = refillPeriodNanos;
+        this.burstWindowNanos = refillPeriodNanos * capacity;
+        this.maxKeys = maxKeys;
+        // the wheel spans one full refill of a bucket, a bucket idle for longer is always removable
+        this.tickNanos = this.burstWindowNanos / WHEEL_SLOTS + 1;
+        this.nanoClock = nanoClock;
+        final long now = nanoClock.getAsLong();
+        for (int i = 0; i < OVERFLOW_STRIPES; i++) {
+            this.overflowBuckets[i] = new AtomicLong(now);
+        }
+        for (int i = 0; i < WHEEL_SLOTS; i++) {
+            this.wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.currentTick = Math.floorDiv(now, this.tickNanos);
+    }
+
+    /**
+     * Takes one token from the key's bucket.
+     *
+     * @return {@code false} if the bucket is empty, nothing is consumed in that case
+     */
+    public boolean tryAcquire(final String key) {
+        while (true) {
+            final AtomicLong bucket = bucketFor(key);
+            final long now = this.nanoClock.getAsLong();
+            final long arrival = bucket.get();
+            if (arrival == RETIRED) {
+                // expired after we fetched it, make sure it is gone and start over with a fresh one
+                remove(key, bucket);
+                continue;
+            }
+            final long next = Math.max(arrival, now) + this.emissionIntervalNanos;
+            if (next - now > this.burstWindowNanos) {
+                return false;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return true;
+            }
+        }
+    }
+
+    private AtomicLong bucketFor(final String key) {
+        final AtomicLong existing = this.buckets.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        if (this.trackedKeys.incrementAndGet() > this.maxKeys) {
+            this.trackedKeys.decrementAndGet();
+            return this.overflowBuckets[Math.floorMod(key.hashCode(), OVERFLOW_STRIPES)];
+        }
+        final long now = this.nanoClock.getAsLong();
+        final AtomicLong created = new AtomicLong(now);
+        final AtomicLong raced = this.buckets.putIfAbsent(key, created);
+        if (raced != null) {
+            this.trackedKeys.decrementAndGet();
+            return raced;
+        }
+        schedule(key, now);
+        return created;
+    }
+
+    private void schedule(final String key, final long expiresAtNanos) {
+        final long tick = Math.max(Math.floorDiv(expiresAtNanos, this.tickNanos), this.currentTick + 1);
+        this.wheel[(int) Math.floorMod(tick, WHEEL_SLOTS)].add(key);
+    }
+
+    /**
+     * Advances the time wheel to now and drops buckets that have been idle long enough to be full
+     * again; buckets still in use are rescheduled for the tick at which they will be full.
+     * Must be called from a single thread.
+     */
+    public void advance() {
+        final long now = this.nanoClock.getAsLong();
+        final long nowTick = Math.floorDiv(now, this.tickNanos);
+        final long lastTick = Math.min(nowTick, this.currentTick + WHEEL_SLOTS);
+        for (long tick = this.currentTick + 1; tick <= lastTick; tick++) {
+            final Queue<String> slot = this.wheel[(int) Math.floorMod(tick, WHEEL_SLOTS)];
+            for (int pending = slot.size(); pending > 0; pending--) {
+                final String key = slot.poll();
+                if (key == null) {
+                    break;
+                }
+                expireOrReschedule(key, now);
+            }
+        }
+        this.currentTick = nowTick;
+    }
+
+    private void expireOrReschedule(final String key, final long now) {
+        final AtomicLong bucket = this.buckets.get(key);
+        if (bucket == null) {
+            return;
+        }
+        final long arrival = bucket.get();
+        if (arrival <= now && bucket.compareAndSet(arrival, RETIRED)) {
+            remove(key, bucket);
+        } else {
+            schedule(key, bucket.get());
+        }
+    }
+
+    private void remove(final String key, final AtomicLong bucket) {
+        if (this.buckets.remove(key, bucket)) {
+            this.trackedKeys.decrementAndGet();
+        }
+    }
+
+    public int trackedKeys() {
+        return this.trackedKeys.get();
+    }
+}
@@ -1,9 +1,10 @@
 package com.manish.app.common.entity;
 
+import com.manish.app.common.id.BinaryUuid;
+import com.manish.app.common.id.BinaryUuidJavaType;
+import com.manish.app.common.id.TimeOrderedId;
 import jakarta.persistence.Column;
 import jakarta.persistence.EntityListeners;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.MappedSuperclass;
 import lombok.AllArgsConstructor;
@@ -11,6 +12,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.JavaType;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -28,7 +30,9 @@ import java.time.LocalDateTime;
 public class BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
+    @JavaType(BinaryUuidJavaType.class)
+    @Column(name = "ID", length = BinaryUuid.BYTES)
     private String id;
 
     @CreatedDate
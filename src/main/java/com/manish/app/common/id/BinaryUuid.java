@@ -0,0 +1,35 @@
+package com.manish.app.common.id;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Conversions between the string form of ids used in the application and the {@code BINARY(16)}
+ * form stored in the database, for code that talks JDBC directly.
+ */
+public final class BinaryUuid {
+
+    public static final int BYTES = 16;
+
+    private BinaryUuid() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the id is not a UUID
+     */
+    public static byte[] toBytes(final String id) {
+        final UUID uuid = UUID.fromString(id);
+        return ByteBuffer.allocate(BYTES)
+            .putLong(uuid.getMostSignificantBits())
+            .putLong(uuid.getLeastSignificantBits())
+            .array();
+    }
+
+    public static String toString(final byte[] bytes) {
+        if (bytes.length != BYTES) {
+            throw new IllegalArgumentException("Binary UUID must have " + BYTES + " bytes, got " + bytes.length);
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong()).toString();
+    }
+}
@@ -0,0 +1,71 @@
+package com.manish.app.common.id;
+
+import org.hibernate.type.SqlTypes;
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.type.descriptor.java.AbstractClassJavaType;
+import org.hibernate.type.descriptor.java.ImmutableMutabilityPlan;
+import org.hibernate.type.descriptor.jdbc.JdbcType;
+import org.hibernate.type.descriptor.jdbc.JdbcTypeIndicators;
+
+import java.util.UUID;
+
+/**
+ * Maps a {@code String} id attribute to a {@code BINARY(16)} column, so entities, JPQL parameters
+ * and the API keep the usual string form while the database stores 16 bytes.
+ */
+public class BinaryUuidJavaType extends AbstractClassJavaType<String> {
+
+    public BinaryUuidJavaType() {
+        super(String.class, ImmutableMutabilityPlan.instance());
+    }
+
+    @Override
+    public JdbcType getRecommendedJdbcType(final JdbcTypeIndicators indicators) {
+        return indicators.getTypeConfiguration().getJdbcTypeRegistry().getDescriptor(SqlTypes.BINARY);
+    }
+
+    @Override
+    public String toString(final String value) {
+        return value;
+    }
+
+    @Override
+    public String fromString(final CharSequence string) {
+        return string == null ? null : string.toString();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <X> X unwrap(final String value, final Class<X> type, final WrapperOptions options) {
+        if (value == null) {
+            return null;
+        }
+        if (byte[].class.equals(type)) {
+            return (X) BinaryUuid.toBytes(value);
+        }
+        if (String.class.equals(type)) {
+            return (X) value;
+        }
+        if (UUID.class.equals(type)) {
+            return (X) UUID.fromString(value);
+        }
+        throw unknownUnwrap(type);
+    }
+
+    @Override
+    public <X> String wrap(final X value, final WrapperOptions options) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof byte[] bytes) {
+            return BinaryUuid.toString(bytes);
+        }
+        if (value instanceof String string) {
+            return string;
+        }
+        if (value instanceof UUID uuid) {
+            return uuid.toString();
+        }
+        throw unknownWrap(value.getClass());
+    }
+}
@@ -0,0 +1,43 @@
+package com.manish.app.common.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates time-ordered UUIDs of version 7 (RFC 9562): 48 bits of Unix milliseconds, a 12 bit
+ * counter, then 62 random bits. Stored big-endian as 16 bytes, ids created later sort after ids
+ * created earlier, so inserts append to the end of the clustered index instead of splitting
+ * random pages.
+ * <p>
+ * Within one JVM ids are strictly increasing: the counter starts at a random value in the lower
+ * half of its range each millisecond and is incremented for ids of the same millisecond,
+ * overflowing into the timestamp if needed. The state is one {@link AtomicLong} updated by CAS.
+ * The random bits come from {@link ThreadLocalRandom}, ids are identifiers and not secrets.
+ */
+public final class UuidV7 {
+
+    private static final int COUNTER_BITS = 12;
+    private static final long VERSION = 7L << COUNTER_BITS;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+    private static final long RANDOM_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+
+    // unix millis << COUNTER_BITS | counter of the last id
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    public static UUID next() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final long seeded = System.currentTimeMillis() << COUNTER_BITS | random.nextInt(1 << (COUNTER_BITS - 1));
+        long last;
+        long next;
+        do {
+            last = LAST.get();
+            next = seeded > last ? seeded : last + 1;
+        } while (!LAST.compareAndSet(last, next));
+        final long mostSignificant = (next >>> COUNTER_BITS) << 16 | VERSION | (next & ((1 << COUNTER_BITS) - 1));
+        return new UUID(mostSignificant, VARIANT | (random.nextLong() & RANDOM_MASK));
+    }
+}
@@ -0,0 +1,25 @@
+package com.manish.app.common.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+
+/**
+ * Assigns a {@link UuidV7} in string form to ids annotated with {@link TimeOrderedId}.
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    @Override
+    public Object generate(final SharedSessionContractImplementor session, final Object owner,
+        final Object currentValue, final EventType eventType) {
+        return UuidV7.next().toString();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
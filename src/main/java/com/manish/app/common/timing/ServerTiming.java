@@ -0,0 +1,152 @@
+package com.manish.app.common.timing;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Per-request breakdown of where the time went, sent back in the {@code Server-Timing} header by
+ * {@link ServerTimingFilter}.
+ * <p>
+ * Instrumented code reports durations through the static methods, which do nothing unless the
+ * filter is installed ({@code app.server-timing.enabled=true}) and a request is being timed on the
+ * current thread; disabled, every call is a single read of a static flag. The context follows the
+ * request across threads only where it is handed over explicitly, see {@link #propagate(Supplier)};
+ * the handovers are sequential, so the context is not synchronized.
+ */
+public final class ServerTiming {
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+    private static volatile boolean enabled;
+
+    private final long startNanos = System.nanoTime();
+    private final long[] nanos = new long[Phase.values().length];
+    private final int[] counts = new int[Phase.values().length];
+    private long handlerStartNanos;
+
+    /**
+     * Phases of a request; they may overlap, e.g. {@code db} time is also part of {@code app}.
+     */
+    public enum Phase {
+        JWT("jwt", "Token verification"),
+        USER("user", "User load"),
+        PASSWORD("pwd", "Password hashing"),
+        APP("app", "Controller"),
+        DB("db", "Database");
+
+        private final String metricName;
+        private final String description;
+
+        Phase(final String metricName, final String description) {
+            this.metricName = metricName;
+            this.description = description;
+        }
+    }
+
+    ServerTiming() {
+    }
+
+    static void enable() {
+        enabled = true;
+    }
+
+    static ServerTiming current() {
+        return enabled ? CURRENT.get() : null;
+    }
+
+    static void setCurrent(final ServerTiming timing) {
+        if (timing == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(timing);
+        }
+    }
+
+    /**
+     * @return the start of a phase to pass to {@link #stop(Phase, long)}, {@code 0} if the current
+     * thread is not timing a request
+     */
+    public static long start() {
+        return current() != null ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Ends a phase begun with {@link #start()}.
+     */
+    public static void stop(final Phase phase, final long startNanos) {
+        if (startNanos != 0) {
+            record(phase, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Adds an already measured duration to the phase.
+     */
+    public static void record(final Phase phase, final long durationNanos) {
+        final ServerTiming timing = current();
+        if (timing != null) {
+            timing.nanos[phase.ordinal()] += durationNanos;
+            timing.counts[phase.ordinal()]++;
+        }
+    }
+
+    /**
+     * Makes the task report into the current request's timing when it runs on another thread.
+     *
+     * @return the task itself if the current thread is not timing a request
+     */
+    public static <T> Supplier<T> propagate(final Supplier<T> task) {
+        final ServerTiming timing = current();
+        if (timing == null) {
+            return task;
+        }
+        return () -> {
+            final ServerTiming previous = CURRENT.get();
+            CURRENT.set(timing);
+            try {
+                return task.get();
+            } finally {
+                setCurrent(previous);
+            }
+        };
+    }
+
+    /**
+     * Marks the start of the handler, the first call per request wins so an async dispatch
+     * continues the phase begun by the initial one.
+     */
+    void handlerStarted() {
+        if (this.handlerStartNanos == 0) {
+            this.handlerStartNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Closes the handler phase, if started, and renders the header value.
+     */
+    String headerValue() {
+        final long now = System.nanoTime();
+        if (this.handlerStartNanos != 0) {
+            this.nanos[Phase.APP.ordinal()] += now - this.handlerStartNanos;
+            this.counts[Phase.APP.ordinal()]++;
+            this.handlerStartNanos = 0;
+        }
+        final StringBuilder value = new StringBuilder(128);
+        for (final Phase phase : Phase.values()) {
+            if (this.counts[phase.ordinal()] > 0) {
+                appendMetric(value, phase.metricName, this.nanos[phase.ordinal()], phase.description);
+            }
+        }
+        appendMetric(value, "total", now - this.startNanos, "Total");
+        return value.toString();
+    }
+
+    private static void appendMetric(final StringBuilder value, final String name, final long nanos,
+        final String description) {
+        if (!value.isEmpty()) {
+            value.append(", ");
+        }
+        value.append(name)
+            .append(";dur=").append(String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0))
+            .append(";desc=\"").append(description).append('"');
+    }
+}
@@ -0,0 +1,56 @@
+package com.manish.app.common.timing;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Opt-in {@code Server-Timing} header ({@code app.server-timing.enabled=true}), meant for live
+ * debugging: it shows whether a slow call was spent in crypto, the database or the application
+ * without attaching a profiler. Nothing here is registered when it is off.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.server-timing.enabled", havingValue = "true")
+public class ServerTimingConfig implements WebMvcConfigurer {
+
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter() {
+        final FilterRegistrationBean<ServerTimingFilter> registration =
+            new FilterRegistrationBean<>(new ServerTimingFilter());
+        // ahead of the security filters, so token verification and user loading are included
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        return registration;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer serverTimingSessionListener() {
+        return properties -> properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+            ServerTimingSessionListener.class.getName());
+    }
+
+    @Override
+    public void addInterceptors(final InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response,
+                final Object handler) {
+                final ServerTiming timing = ServerTiming.current();
+                if (timing != null) {
+                    timing.handlerStarted();
+                }
+                return true;
+            }
+        });
+    }
+}
@@ -0,0 +1,115 @@
+package com.manish.app.common.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Times every request and sends the breakdown collected in its {@link ServerTiming} as the
+ * {@code Server-Timing} header.
+ * <p>
+ * Headers cannot be added once the response is committed, so the header is set right before the
+ * body is first written, or when the request completes without one. An async request keeps its
+ * context in a request attribute and the header is sent by the dispatch that writes the result.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "Server-Timing";
+    private static final String TIMING_ATTRIBUTE = ServerTiming.class.getName();
+
+    public ServerTimingFilter() {
+        ServerTiming.enable();
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(
+        final HttpServletRequest request,
+        final HttpServletResponse response,
+        final FilterChain filterChain
+    ) throws ServletException, IOException {
+        ServerTiming timing = (ServerTiming) request.getAttribute(TIMING_ATTRIBUTE);
+        if (timing == null) {
+            timing = new ServerTiming();
+            request.setAttribute(TIMING_ATTRIBUTE, timing);
+        }
+        final TimingResponse timedResponse = new TimingResponse(response, timing);
+        ServerTiming.setCurrent(timing);
+        try {
+            filterChain.doFilter(request, timedResponse);
+        } finally {
+            ServerTiming.setCurrent(null);
+        }
+        if (!request.isAsyncStarted()) {
+            timedResponse.writeHeader();
+        }
+    }
+
+    /**
+     * Sets the header before anything that commits the response.
+     */
+    private static final class TimingResponse extends HttpServletResponseWrapper {
+
+        private final ServerTiming timing;
+        private boolean headerWritten;
+
+        TimingResponse(final HttpServletResponse response, final ServerTiming timing) {
+            super(response);
+            this.timing = timing;
+        }
+
+        void writeHeader() {
+            if (!this.headerWritten && !isCommitted()) {
+                setHeader(HEADER, this.timing.headerValue());
+            }
+            this.headerWritten = true;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(final int sc) throws IOException {
+            writeHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(final int sc, final String msg) throws IOException {
+            writeHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(final String location) throws IOException {
+            writeHeader();
+            super.sendRedirect(location);
+        }
+    }
+}
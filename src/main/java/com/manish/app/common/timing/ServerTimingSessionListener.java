@@ -0,0 +1,44 @@
+package com.manish.app.common.timing;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Reports the time a Hibernate session spends waiting for a connection and executing statements
+ * as the {@code db} phase of the current request. Hibernate creates one per session.
+ */
+public class ServerTimingSessionListener implements SessionEventListener {
+
+    private long acquisitionStart;
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        this.acquisitionStart = ServerTiming.start();
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        ServerTiming.stop(ServerTiming.Phase.DB, this.acquisitionStart);
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        this.statementStart = ServerTiming.start();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        ServerTiming.stop(ServerTiming.Phase.DB, this.statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        this.batchStart = ServerTiming.start();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        ServerTiming.stop(ServerTiming.Phase.DB, this.batchStart);
+    }
+}
@@ -13,6 +13,7 @@ public final class ApiConstants {
     public static final String AUTH_LOGIN = "/login";
     public static final String AUTH_REGISTER = "/register";
     public static final String AUTH_REFRESH = "/refresh";
+    public static final String AUTH_LOGOUT = "/logout";
 
     // User endpoints
     public static final String USERS_BASE = API_PREFIX + "/users";
@@ -22,6 +23,12 @@ public final class ApiConstants {
     public static final String USERS_ME_REACTIVATE = USERS_ME +"/reactivate";
     public static final String USERS_ME_DELETE = USERS_ME + "/delete";
 
+    // Admin endpoints
+    public static final String ADMIN_BASE = API_PREFIX + "/admin";
+    public static final String ADMIN_USERS = "/users";
+    public static final String ADMIN_USERS_IMPORT = "/users/import";
+    public static final String ADMIN_USERS_EXPORT = "/users/export";
+
     // File endpoints
     public static final String FILES_BASE = API_PREFIX + "/files";
     public static final String FILES_UPLOAD = "/upload";
@@ -45,6 +52,7 @@ public final class ApiConstants {
     public static final String ERROR_TOKEN_INVALID = "Invalid token";
     public static final String ERROR_TOKEN_EXPIRED = "Token expired";
     public static final String ERROR_FORBIDDEN_ACCESS = "Access to this resource is forbidden";
+    public static final String ERROR_SERVICE_BUSY = "Too many authentication requests in progress, please retry later";
 
 
 
@@ -1,6 +1,6 @@
 package com.manish.app.config;
 
-import com.manish.app.user.entity.User;
+import com.manish.app.security.UserPrincipal;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -18,7 +18,7 @@ public class ApplicationAuditorAware implements AuditorAware<String> {
             authentication instanceof AnonymousAuthenticationToken) {
             return Optional.empty();
         }
-        final User user = (User) authentication.getPrincipal();
+        final UserPrincipal user = (UserPrincipal) authentication.getPrincipal();
         return Optional.ofNullable(user.getId());
     }
 }
@@ -1,19 +1,67 @@
 package com.manish.app.config;
 
+import com.manish.app.user.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.scrypt.SCryptPasswordEncoder;
+
+import java.util.Map;
 
 @Configuration
 public class BeansConfig {
 
+    /**
+     * Versioned password encoder: hashes are stored as {@code {id}hash} and new hashes use the
+     * configured encoder, with its work factor calibrated to the target latency at startup.
+     * Legacy hashes without an id prefix are BCrypt. Stale hashes report
+     * {@link PasswordEncoder#upgradeEncoding(String)} and are rehashed on the next login. Every
+     * encoder is timed, see {@link TimedPasswordEncoder}.
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(
+        @Value("${app.security.password.encoder:bcrypt}") final String encodingId,
+        @Value("${app.security.password.target-hash-millis:250}") final long targetHashMillis,
+        final MeterRegistry meterRegistry) {
+        final PasswordEncoderCalibrator calibrator = new PasswordEncoderCalibrator(targetHashMillis);
+        final PasswordEncoder bcrypt = new TimedPasswordEncoder("bcrypt", "bcrypt".equals(encodingId)
+            ? calibrator.bcrypt()
+            : new BCryptPasswordEncoder(), meterRegistry);
+        final Map<String, PasswordEncoder> encoders = Map.of(
+            "bcrypt", bcrypt,
+            "argon2", new TimedPasswordEncoder("argon2", "argon2".equals(encodingId) ? calibrator.argon2()
+                : Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8(), meterRegistry),
+            "scrypt", new TimedPasswordEncoder("scrypt", "scrypt".equals(encodingId) ? calibrator.scrypt()
+                : SCryptPasswordEncoder.defaultsForSpringSecurity_v5_8(), meterRegistry)
+        );
+        if (!encoders.containsKey(encodingId)) {
+            throw new IllegalArgumentException(
+                "Unsupported password encoder: " + encodingId + ". Supported: " + encoders.keySet());
+        }
+        final DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(encodingId, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return delegating;
+    }
+
+    /**
+     * Checks login passwords against the user loaded without the user details cache, which holds
+     * no password hashes.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public DaoAuthenticationProvider authenticationProvider(final UserService userService,
+        final PasswordEncoder passwordEncoder) {
+        final DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userService::loadUserForLogin);
+        provider.setPasswordEncoder(passwordEncoder);
+        return provider;
     }
 
     @Bean
@@ -0,0 +1,16 @@
+package com.manish.app.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the Spring cache abstraction, backed by the Caffeine caches declared under
+ * {@code spring.cache} in the application configuration.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String USER_DETAILS_CACHE = "userDetails";
+
+}
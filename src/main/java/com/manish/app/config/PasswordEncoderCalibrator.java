@@ -0,0 +1,86 @@
+package com.manish.app.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.scrypt.SCryptPasswordEncoder;
+
+import java.util.function.IntFunction;
+
+/**
+ * Picks password hashing work factors so that one hash takes about the configured target latency
+ * on the hardware the application is running on, instead of a hard-coded cost.
+ * <p>
+ * Each encoder's cost parameter is raised step by step while a measured hash stays within the
+ * target; the last value within budget wins, bounded by a floor that is never undercut.
+ */
+@Slf4j
+final class PasswordEncoderCalibrator {
+
+    private static final int MIN_BCRYPT_STRENGTH = 10;
+    private static final int MAX_BCRYPT_STRENGTH = 16;
+    private static final int MIN_ARGON2_ITERATIONS = 2;
+    private static final int MAX_ARGON2_ITERATIONS = 16;
+    private static final int ARGON2_MEMORY_KIB = 19 * 1024;
+    private static final int MIN_SCRYPT_CPU_COST_LOG2 = 15;
+    private static final int MAX_SCRYPT_CPU_COST_LOG2 = 20;
+    private static final String SAMPLE_PASSWORD = "Calibration-Password-123!";
+
+    private final long targetMillis;
+
+    PasswordEncoderCalibrator(final long targetMillis) {
+        this.targetMillis = targetMillis;
+    }
+
+    BCryptPasswordEncoder bcrypt() {
+        final int strength = calibrate("bcrypt strength", MIN_BCRYPT_STRENGTH, MAX_BCRYPT_STRENGTH,
+            BCryptPasswordEncoder::new);
+        return new BCryptPasswordEncoder(strength);
+    }
+
+    Argon2PasswordEncoder argon2() {
+        final int iterations = calibrate("argon2 iterations", MIN_ARGON2_ITERATIONS, MAX_ARGON2_ITERATIONS,
+            PasswordEncoderCalibrator::argon2);
+        return argon2(iterations);
+    }
+
+    SCryptPasswordEncoder scrypt() {
+        final int cpuCostLog2 = calibrate("scrypt log2(N)", MIN_SCRYPT_CPU_COST_LOG2, MAX_SCRYPT_CPU_COST_LOG2,
+            PasswordEncoderCalibrator::scrypt);
+        return scrypt(cpuCostLog2);
+    }
+
+    private int calibrate(final String parameter, final int min, final int max,
+        final IntFunction<PasswordEncoder> encoderFactory) {
+        // the first hash also pays for class loading and JIT warm-up
+        encoderFactory.apply(min).encode(SAMPLE_PASSWORD);
+        int chosen = min;
+        long chosenMillis = measure(encoderFactory.apply(min));
+        for (int value = min + 1; value <= max; value++) {
+            final long millis = measure(encoderFactory.apply(value));
+            if (millis > this.targetMillis) {
+                break;
+            }
+            chosen = value;
+            chosenMillis = millis;
+        }
+        log.info("Calibrated {} to {} ({} ms per hash, target {} ms)", parameter, chosen,
+            chosenMillis, this.targetMillis);
+        return chosen;
+    }
+
+    private static long measure(final PasswordEncoder encoder) {
+        final long start = System.nanoTime();
+        encoder.encode(SAMPLE_PASSWORD);
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private static Argon2PasswordEncoder argon2(final int iterations) {
+        return new Argon2PasswordEncoder(16, 32, 1, ARGON2_MEMORY_KIB, iterations);
+    }
+
+    private static SCryptPasswordEncoder scrypt(final int cpuCostLog2) {
+        return new SCryptPasswordEncoder(1 << cpuCostLog2, 8, 1, 32, 16);
+    }
+}
@@ -0,0 +1,53 @@
+package com.manish.app.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * Gives the admin streaming endpoints (bulk import and export) an async timeout of their own.
+ * <p>
+ * {@code spring.mvc.async.request-timeout} suits ordinary async requests and is far too short
+ * for a stream of hundreds of thousands of rows. Its expiry cannot be recovered from once the
+ * response is committed, so the streams get {@code app.users.streaming-timeout} instead, zero or
+ * negative meaning no timeout.
+ */
+@Configuration
+public class StreamingAsyncConfig implements WebMvcConfigurer {
+
+    private static final Set<String> STREAMING_PATHS = Set.of(
+        ApiConstants.ADMIN_BASE + ApiConstants.ADMIN_USERS_IMPORT,
+        ApiConstants.ADMIN_BASE + ApiConstants.ADMIN_USERS_EXPORT
+    );
+
+    private final long streamingTimeoutMillis;
+
+    public StreamingAsyncConfig(@Value("${app.users.streaming-timeout:12h}") final Duration streamingTimeout) {
+        // the servlet container treats a timeout of zero or less as none
+        this.streamingTimeoutMillis = streamingTimeout.isNegative() ? 0 : streamingTimeout.toMillis();
+    }
+
+    @Override
+    public void configureAsyncSupport(final AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            // runs before the async request is started, when its timeout can still be changed
+            @Override
+            public <T> void beforeConcurrentHandling(final NativeWebRequest request, final Callable<T> task) {
+                final HttpServletRequest servletRequest = request.getNativeRequest(HttpServletRequest.class);
+                if (request instanceof AsyncWebRequest asyncRequest && servletRequest != null
+                    && STREAMING_PATHS.contains(servletRequest.getServletPath())) {
+                    asyncRequest.setTimeout(streamingTimeoutMillis);
+                }
+            }
+        });
+    }
+}
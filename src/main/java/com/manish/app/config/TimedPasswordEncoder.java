@@ -0,0 +1,62 @@
+package com.manish.app.config;
+
+import com.manish.app.common.timing.ServerTiming;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the duration of every hash and check of one encoder in {@code auth.password.hashing},
+ * tagged with the encoder id and the operation, and in the request's {@link ServerTiming}.
+ */
+final class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    TimedPasswordEncoder(final String encodingId, final PasswordEncoder delegate, final MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encodeTimer = timer(encodingId, "encode", meterRegistry);
+        this.matchesTimer = timer(encodingId, "matches", meterRegistry);
+    }
+
+    @Override
+    public String encode(final CharSequence rawPassword) {
+        final long start = System.nanoTime();
+        try {
+            return this.delegate.encode(rawPassword);
+        } finally {
+            record(this.encodeTimer, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public boolean matches(final CharSequence rawPassword, final String encodedPassword) {
+        final long start = System.nanoTime();
+        try {
+            return this.delegate.matches(rawPassword, encodedPassword);
+        } finally {
+            record(this.matchesTimer, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(final String encodedPassword) {
+        return this.delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private static void record(final Timer timer, final long elapsed) {
+        timer.record(elapsed, TimeUnit.NANOSECONDS);
+        ServerTiming.record(ServerTiming.Phase.PASSWORD, elapsed);
+    }
+
+    private static Timer timer(final String encodingId, final String operation, final MeterRegistry meterRegistry) {
+        return Timer.builder("auth.password.hashing")
+            .tag("encoder", encodingId)
+            .tag("operation", operation)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,48 @@
+package com.manish.app.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+/**
+ * Adjustments for running on virtual threads ({@code spring.threads.virtual.enabled=true} on
+ * Java 21+, see the {@code virtual-threads} profile). Spring Boot then serves Tomcat requests,
+ * {@code @Scheduled} jobs and {@code @Async} work on virtual threads.
+ * <p>
+ * On Java 21 a virtual thread blocking inside {@code synchronized} pins its carrier thread.
+ * Audit of the blocking paths:
+ * <ul>
+ *     <li>MySQL Connector/J 9.x and HikariCP 6.x guard their I/O with {@code java.util.concurrent}
+ *     locks, not monitors.</li>
+ *     <li>Application code locks with {@code ReentrantLock} only ({@code KeyUtils},
+ *     {@code RefreshTokenStore}, {@code TokenDenylist}).</li>
+ *     <li>{@code @Cacheable(sync = true)} on the user details loads the user inside Caffeine's
+ *     compute, which holds a {@code ConcurrentHashMap} bin monitor while the query runs. The
+ *     cache is switched to async mode below, so the query runs on a separate virtual thread
+ *     while callers wait on a future.</li>
+ *     <li>Password hashing stays on the bounded platform pool of {@code PasswordHashingExecutor}:
+ *     it is CPU-bound and must not grow with the number of requests.</li>
+ * </ul>
+ * Remaining pinning can be found with {@code -Djdk.tracePinnedThreads=short} or the
+ * {@code jdk.VirtualThreadPinned} JFR event.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> asyncCaffeineCacheCustomizer(
+        @Value("${spring.cache.caffeine.spec:}") final String spec) {
+        return cacheManager -> {
+            final Caffeine<Object, Object> builder = spec.isBlank() ? Caffeine.newBuilder() : Caffeine.from(spec);
+            cacheManager.setCaffeine(builder.executor(new VirtualThreadTaskExecutor("cache-load-")));
+            cacheManager.setAsyncCacheMode(true);
+        };
+    }
+}
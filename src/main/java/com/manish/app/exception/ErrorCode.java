@@ -13,8 +13,15 @@ public enum ErrorCode {
     EMAIL_ALREADY_EXISTS("EMAIL_ALREADY_EXISTS", "Email already exists", HttpStatus.BAD_REQUEST),
     PHONE_ALREADY_EXISTS("PHONE_ALREADY_EXISTS", "Phone number already exists", HttpStatus.BAD_REQUEST),
     PASSWORD_MISMATCH("PASSWORD_MISMATCH", "Password do not match", HttpStatus.BAD_REQUEST),
+    INVALID_USER_DATA("INVALID_USER_DATA", "User data violates a database constraint", HttpStatus.BAD_REQUEST),
     ERR_USER_DISABLED("ERR_USER_DISABLED", "User is disabled", HttpStatus.UNAUTHORIZED),
     BAD_CREDENTIALS("BAD_CREDENTIALS", "Username and / or password is incorrect", HttpStatus.UNAUTHORIZED),
+    INVALID_REFRESH_TOKEN("INVALID_REFRESH_TOKEN", "Refresh token is invalid or expired", HttpStatus.UNAUTHORIZED),
+    REFRESH_TOKEN_REUSED("REFRESH_TOKEN_REUSED", "Refresh token was already used, please log in again", HttpStatus.UNAUTHORIZED),
+    EXPORT_INTERRUPTED("EXPORT_INTERRUPTED", "Export was interrupted, the users written so far are incomplete", HttpStatus.INTERNAL_SERVER_ERROR),
+    INVALID_SEARCH_CURSOR("INVALID_SEARCH_CURSOR", "Search cursor is malformed", HttpStatus.BAD_REQUEST),
+    TOO_MANY_LOGIN_ATTEMPTS("TOO_MANY_LOGIN_ATTEMPTS", "Too many login attempts, please retry later", HttpStatus.TOO_MANY_REQUESTS),
+    AUTHENTICATION_BUSY("AUTHENTICATION_BUSY", "Too many authentication requests in progress, please retry later", HttpStatus.SERVICE_UNAVAILABLE),
     INTERNAL_ERROR("INTERNAL_ERROR", "Internal server error", HttpStatus.INTERNAL_SERVER_ERROR);
     private final String code;
     private final String defaultMessage;
@@ -0,0 +1,95 @@
+package com.manish.app.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Secondary indexes of the hot queries, the same ones declared on the entities.
+ * <p>
+ * Written in Java rather than SQL because databases baselined at V1 were maintained by
+ * {@code ddl-auto: update}, which may already have created some of these indexes, and MySQL has
+ * no {@code create index if not exists}: an index is created when missing and recreated when it
+ * exists under the same name with other columns.
+ */
+@Slf4j
+public class V2__Query_indexes extends BaseJavaMigration {
+
+    private record IndexDefinition(String table, String name, boolean unique, List<String> columns) {
+    }
+
+    private static final List<IndexDefinition> INDEXES = List.of(
+        // login, registration and import lookups by email
+        new IndexDefinition("USERS", "UK_USERS_EMAIL_NORMALIZED", true, List.of("EMAIL_NORMALIZED")),
+        // purge keyset over marked users, the cutoff is checked inside the index
+        new IndexDefinition("USERS", "IDX_USERS_MARKED_FOR_DELETION", false,
+            List.of("MARKED_FOR_DELETION", "ID", "MARKED_AT")),
+        // admin search keyset pages, unfiltered and per flag filter
+        new IndexDefinition("USERS", "IDX_USERS_CREATED", false, List.of("CREATED_DATE", "ID")),
+        new IndexDefinition("USERS", "IDX_USERS_ENABLED_CREATED", false, List.of("IS_ENABLED", "CREATED_DATE", "ID")),
+        new IndexDefinition("USERS", "IDX_USERS_LOCKED_CREATED", false,
+            List.of("IS_ACCOUNT_LOCKED", "CREATED_DATE", "ID")),
+        new IndexDefinition("USERS", "IDX_USERS_MARKED_CREATED", false,
+            List.of("MARKED_FOR_DELETION", "CREATED_DATE", "ID")),
+        new IndexDefinition("ROLES", "UK_ROLES_NAME", true, List.of("NAME")),
+        new IndexDefinition("REFRESH_TOKENS", "IDX_REFRESH_TOKENS_FAMILY", false, List.of("FAMILY_ID")),
+        new IndexDefinition("REFRESH_TOKENS", "IDX_REFRESH_TOKENS_USER", false, List.of("USER_ID")),
+        new IndexDefinition("REFRESH_TOKENS", "IDX_REFRESH_TOKENS_EXPIRES_AT", false, List.of("EXPIRES_AT"))
+    );
+
+    @Override
+    public void migrate(final Context context) throws SQLException {
+        final Connection connection = context.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            for (final IndexDefinition index : INDEXES) {
+                final List<String> existing = existingIndexes(connection, index.table())
+                    .get(index.name().toUpperCase(Locale.ROOT));
+                if (index.columns().equals(existing)) {
+                    continue;
+                }
+                if (existing != null) {
+                    log.info("Recreating index {} on {} with columns {}", index.name(), index.table(), index.columns());
+                    statement.execute("drop index " + index.name() + " on " + index.table());
+                }
+                statement.execute("create " + (index.unique() ? "unique " : "") + "index " + index.name()
+                    + " on " + index.table() + " (" + String.join(", ", index.columns()) + ")");
+            }
+        }
+    }
+
+    /**
+     * @return columns in index order per upper-cased index name
+     */
+    private static Map<String, List<String>> existingIndexes(final Connection connection, final String table)
+        throws SQLException {
+        final DatabaseMetaData metaData = connection.getMetaData();
+        final Map<String, List<String>> indexes = new HashMap<>();
+        try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), table, false, false)) {
+            while (rs.next()) {
+                final String name = rs.getString("INDEX_NAME");
+                final String column = rs.getString("COLUMN_NAME");
+                if (name == null || column == null) {
+                    continue;
+                }
+                final List<String> columns = indexes.computeIfAbsent(name.toUpperCase(Locale.ROOT), n -> new ArrayList<>());
+                final int position = rs.getShort("ORDINAL_POSITION");
+                while (columns.size() < position) {
+                    columns.add(null);
+                }
+                columns.set(position - 1, column.toUpperCase(Locale.ROOT));
+            }
+        }
+        return indexes;
+    }
+}
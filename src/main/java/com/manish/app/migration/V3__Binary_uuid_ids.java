@@ -0,0 +1,221 @@
+package com.manish.app.migration;
+
+import com.manish.app.common.id.BinaryUuid;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Converts the UUID ids and the columns referencing them from 36 character strings to
+ * {@code BINARY(16)}.
+ * <p>
+ * Each column gets a binary twin that is filled in batches of distinct values, so no statement
+ * touches more than {@value #BATCH_SIZE} ids. The foreign keys, primary keys and indexes on the
+ * columns are dropped first and recreated as they were afterwards; primary keys without a
+ * converted column are left alone. Existing ids keep their value, only ids created from now on
+ * are time-ordered.
+ * <p>
+ * MySQL commits every DDL statement, so a failure part way leaves the schema half converted and
+ * the migration marked as failed. Recover by restoring the pre-migration backup, or by finishing
+ * by hand: drop the leftover {@code _BIN} columns of unconverted tables, recreate the keys and
+ * indexes listed in the log, then run {@code flyway repair} before migrating again.
+ */
+@Slf4j
+public class V3__Binary_uuid_ids extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private record IdColumn(String table, String column) {
+    }
+
+    private record ForeignKey(String name, String table, String column, String referencedTable, String referencedColumn) {
+    }
+
+    private record TableIndex(String table, String name, boolean unique, List<String> columns) {
+    }
+
+    private static final List<IdColumn> ID_COLUMNS = List.of(
+        new IdColumn("USERS", "ID"),
+        new IdColumn("ROLES", "ID"),
+        new IdColumn("USERS_ROLES", "USERS_ID"),
+        new IdColumn("USERS_ROLES", "ROLES_ID"),
+        new IdColumn("REFRESH_TOKENS", "USER_ID")
+    );
+
+    @Override
+    public void migrate(final Context context) throws SQLException {
+        final Connection connection = context.getConnection();
+        final boolean mysql = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("mysql");
+        final Set<String> tables = new LinkedHashSet<>();
+        ID_COLUMNS.forEach(idColumn -> tables.add(idColumn.table()));
+
+        try (Statement statement = connection.createStatement()) {
+            final List<ForeignKey> foreignKeys = new ArrayList<>();
+            for (final String table : tables) {
+                foreignKeys.addAll(foreignKeys(connection, table));
+            }
+            // dropped before the indexes are read, the database may remove the indexes backing them
+            for (final ForeignKey foreignKey : foreignKeys) {
+                statement.execute("alter table " + foreignKey.table()
+                    + (mysql ? " drop foreign key " : " drop constraint ") + foreignKey.name());
+            }
+            final Map<String, List<String>> primaryKeys = new LinkedHashMap<>();
+            final List<TableIndex> indexes = new ArrayList<>();
+            for (final String table : tables) {
+                final List<String> primaryKey = primaryKey(connection, table);
+                if (primaryKey.stream().anyMatch(idColumns(table)::contains)) {
+                    primaryKeys.put(table, primaryKey);
+                }
+                indexes.addAll(indexesOnIdColumns(connection, table, primaryKey));
+            }
+            log.info("Recreating after the conversion: foreign keys {}, primary keys {}, indexes {}",
+                foreignKeys, primaryKeys, indexes);
+            for (final TableIndex index : indexes) {
+                statement.execute(mysql
+                    ? "drop index " + index.name() + " on " + index.table()
+                    : "drop index " + index.name());
+            }
+            for (final Map.Entry<String, List<String>> primaryKey : primaryKeys.entrySet()) {
+                statement.execute("alter table " + primaryKey.getKey() + " drop primary key");
+            }
+
+            for (final IdColumn idColumn : ID_COLUMNS) {
+                convert(connection, statement, idColumn, mysql);
+            }
+
+            for (final Map.Entry<String, List<String>> primaryKey : primaryKeys.entrySet()) {
+                statement.execute("alter table " + primaryKey.getKey() + " add constraint PK_" + primaryKey.getKey()
+                    + " primary key (" + String.join(", ", primaryKey.getValue()) + ")");
+            }
+            for (final TableIndex index : indexes) {
+                statement.execute("create " + (index.unique() ? "unique " : "") + "index " + index.name()
+                    + " on " + index.table() + " (" + String.join(", ", index.columns()) + ")");
+            }
+            for (final ForeignKey foreignKey : foreignKeys) {
+                statement.execute("alter table " + foreignKey.table() + " add constraint " + foreignKey.name()
+                    + " foreign key (" + foreignKey.column() + ") references " + foreignKey.referencedTable()
+                    + " (" + foreignKey.referencedColumn() + ")");
+            }
+        }
+    }
+
+    private static void convert(final Connection connection, final Statement statement, final IdColumn idColumn,
+        final boolean mysql) throws SQLException {
+        final String table = idColumn.table();
+        final String column = idColumn.column();
+        final String binary = column + "_BIN";
+        statement.execute("alter table " + table + " add column " + binary + " binary(16)");
+        long converted = 0;
+        String last = "";
+        try (PreparedStatement select = connection.prepareStatement("select distinct " + column + " from " + table
+                 + " where " + column + " > ? order by " + column + " limit " + BATCH_SIZE);
+             PreparedStatement update = connection.prepareStatement(
+                 "update " + table + " set " + binary + " = ? where " + column + " = ?")) {
+            while (true) {
+                select.setString(1, last);
+                final List<String> values = new ArrayList<>(BATCH_SIZE);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        values.add(rs.getString(1));
+                    }
+                }
+                if (values.isEmpty()) {
+                    break;
+                }
+                for (final String value : values) {
+                    update.setBytes(1, BinaryUuid.toBytes(value));
+                    update.setString(2, value);
+                    update.addBatch();
+                }
+                update.executeBatch();
+                converted += values.size();
+                last = values.get(values.size() - 1);
+            }
+        }
+        statement.execute("alter table " + table + " drop column " + column);
+        if (mysql) {
+            statement.execute("alter table " + table + " change column " + binary + " " + column + " binary(16) not null");
+        } else {
+            statement.execute("alter table " + table + " alter column " + binary + " rename to " + column);
+            statement.execute("alter table " + table + " alter column " + column + " set not null");
+        }
+        log.info("Converted {} distinct values of {}.{} to binary", converted, table, column);
+    }
+
+    private static List<ForeignKey> foreignKeys(final Connection connection, final String table) throws SQLException {
+        final List<ForeignKey> foreignKeys = new ArrayList<>();
+        try (ResultSet rs = connection.getMetaData().getImportedKeys(connection.getCatalog(), connection.getSchema(), table)) {
+            while (rs.next()) {
+                foreignKeys.add(new ForeignKey(rs.getString("FK_NAME"), table, rs.getString("FKCOLUMN_NAME"),
+                    rs.getString("PKTABLE_NAME"), rs.getString("PKCOLUMN_NAME")));
+            }
+        }
+        return foreignKeys;
+    }
+
+    private static List<String> primaryKey(final Connection connection, final String table) throws SQLException {
+        final Map<Short, String> columns = new TreeMap<>();
+        try (ResultSet rs = connection.getMetaData().getPrimaryKeys(connection.getCatalog(), connection.getSchema(), table)) {
+            while (rs.next()) {
+                columns.put(rs.getShort("KEY_SEQ"), rs.getString("COLUMN_NAME").toUpperCase(Locale.ROOT));
+            }
+        }
+        return new ArrayList<>(columns.values());
+    }
+
+    private static Set<String> idColumns(final String table) {
+        final Set<String> idColumns = new LinkedHashSet<>();
+        ID_COLUMNS.stream().filter(idColumn -> idColumn.table().equals(table)).forEach(idColumn -> idColumns.add(idColumn.column()));
+        return idColumns;
+    }
+
+    /**
+     * Indexes other than the primary key that contain one of the converted columns of the table.
+     */
+    private static List<TableIndex> indexesOnIdColumns(final Connection connection, final String table,
+        final List<String> primaryKey) throws SQLException {
+        final Set<String> idColumns = idColumns(table);
+        final DatabaseMetaData metaData = connection.getMetaData();
+        final Map<String, List<String>> columnsByIndex = new LinkedHashMap<>();
+        final Map<String, Boolean> uniqueByIndex = new LinkedHashMap<>();
+        try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), table, false, false)) {
+            while (rs.next()) {
+                final String name = rs.getString("INDEX_NAME");
+                final String column = rs.getString("COLUMN_NAME");
+                if (name == null || column == null) {
+                    continue;
+                }
+                final List<String> columns = columnsByIndex.computeIfAbsent(name, n -> new ArrayList<>());
+                final int position = rs.getShort("ORDINAL_POSITION");
+                while (columns.size() < position) {
+                    columns.add(null);
+                }
+                columns.set(position - 1, column.toUpperCase(Locale.ROOT));
+                uniqueByIndex.put(name, !rs.getBoolean("NON_UNIQUE"));
+            }
+        }
+        final List<TableIndex> indexes = new ArrayList<>();
+        columnsByIndex.forEach((name, columns) -> {
+            final boolean primary = uniqueByIndex.get(name) && columns.equals(primaryKey);
+            if (!primary && columns.stream().anyMatch(idColumns::contains)) {
+                indexes.add(new TableIndex(table, name, uniqueByIndex.get(name), columns));
+            }
+        });
+        return indexes;
+    }
+}
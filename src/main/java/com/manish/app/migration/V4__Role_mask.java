@@ -0,0 +1,97 @@
+package com.manish.app.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Gives every role a bit and every user the mask of its roles ({@code ROLES.BIT_INDEX},
+ * {@code USERS.ROLE_MASK}), see {@link com.manish.app.role.RoleRegistry}.
+ * <p>
+ * Bits are assigned in creation order. The masks are filled from {@code USERS_ROLES} role by role
+ * in batches of {@value #BATCH_SIZE} users; a user holds a role at most once, so adding the bit is
+ * the same as setting it.
+ */
+@Slf4j
+public class V4__Role_mask extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_ROLES = Long.SIZE;
+
+    @Override
+    public void migrate(final Context context) throws SQLException {
+        final Connection connection = context.getConnection();
+        final boolean mysql = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("mysql");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("alter table ROLES add column BIT_INDEX integer");
+            statement.execute("alter table USERS add column ROLE_MASK bigint default 0 not null");
+
+            final List<byte[]> roleIds = new ArrayList<>();
+            try (ResultSet rs = statement.executeQuery("select ID from ROLES order by CREATED_DATE, ID")) {
+                while (rs.next()) {
+                    roleIds.add(rs.getBytes(1));
+                }
+            }
+            if (roleIds.size() > MAX_ROLES) {
+                throw new IllegalStateException(roleIds.size() + " roles do not fit into a mask of " + MAX_ROLES + " bits");
+            }
+            try (PreparedStatement update = connection.prepareStatement("update ROLES set BIT_INDEX = ? where ID = ?")) {
+                for (int bit = 0; bit < roleIds.size(); bit++) {
+                    update.setInt(1, bit);
+                    update.setBytes(2, roleIds.get(bit));
+                    update.addBatch();
+                }
+                update.executeBatch();
+            }
+            statement.execute(mysql
+                ? "alter table ROLES modify column BIT_INDEX integer not null"
+                : "alter table ROLES alter column BIT_INDEX set not null");
+            statement.execute("create unique index UK_ROLES_BIT_INDEX on ROLES (BIT_INDEX)");
+
+            for (int bit = 0; bit < roleIds.size(); bit++) {
+                fillMasks(connection, roleIds.get(bit), 1L << bit);
+            }
+        }
+    }
+
+    private static void fillMasks(final Connection connection, final byte[] roleId, final long bit) throws SQLException {
+        long updated = 0;
+        byte[] last = new byte[16];
+        try (PreparedStatement select = connection.prepareStatement("select USERS_ID from USERS_ROLES"
+                 + " where ROLES_ID = ? and USERS_ID > ? order by USERS_ID limit " + BATCH_SIZE);
+             PreparedStatement update = connection.prepareStatement(
+                 "update USERS set ROLE_MASK = ROLE_MASK + ? where ID = ?")) {
+            while (true) {
+                select.setBytes(1, roleId);
+                select.setBytes(2, last);
+                final List<byte[]> userIds = new ArrayList<>(BATCH_SIZE);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        userIds.add(rs.getBytes(1));
+                    }
+                }
+                if (userIds.isEmpty()) {
+                    break;
+                }
+                for (final byte[] userId : userIds) {
+                    update.setLong(1, bit);
+                    update.setBytes(2, userId);
+                    update.addBatch();
+                }
+                update.executeBatch();
+                updated += userIds.size();
+                last = userIds.get(userIds.size() - 1);
+            }
+        }
+        log.info("Set role bit {} on {} users", Long.numberOfTrailingZeros(bit), updated);
+    }
+}
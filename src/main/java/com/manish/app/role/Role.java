@@ -2,7 +2,9 @@ package com.manish.app.role;
 
 import com.manish.app.common.entity.BaseEntity;
 import com.manish.app.user.entity.User;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
@@ -10,6 +12,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -20,16 +24,29 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @SuperBuilder
-@Table(name = "ROLES")
+@Table(name = "ROLES", indexes = {
+    @Index(name = "UK_ROLES_NAME", columnList = "NAME", unique = true),
+    @Index(name = "UK_ROLES_BIT_INDEX", columnList = "BIT_INDEX", unique = true)
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Role.CACHE_REGION)
 public class Role extends BaseEntity {
 
+    public static final String CACHE_REGION = "roles";
+    public static final String QUERY_CACHE_REGION = "role-queries";
+
     private String name;
 
+    /**
+     * Bit of this role in {@code USERS.ROLE_MASK}, see {@link RoleRegistry}.
+     */
+    @Column(name = "BIT_INDEX", nullable = false, updatable = false)
+    private Integer bitIndex;
+
     @ManyToMany(mappedBy = "roles")
     private Set<User> users = new HashSet<>();
 
     public void removeUser(User user) {
         users.remove(user);
-        user.getRoles().remove(this);
+        user.removeRole(this);
     }
 }
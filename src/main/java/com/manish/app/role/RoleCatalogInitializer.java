@@ -0,0 +1,42 @@
+package com.manish.app.role;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Seeds the built-in roles and loads the {@link RoleRegistry} while the context starts, before the
+ * web server accepts requests; until then every user would resolve to no authorities. The JWT
+ * filter depends on this bean.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RoleCatalogInitializer {
+
+    public static final String BEAN_NAME = "roleCatalogInitializer";
+    private static final List<String> BUILT_IN_ROLES = List.of("ROLE_USER", "ROLE_ADMIN");
+
+    private final RoleRepository roleRepository;
+
+    @PostConstruct
+    public void load() {
+        for (final String roleName : BUILT_IN_ROLES) {
+            final Optional<Role> existing = this.roleRepository.findByName(roleName);
+            if (existing.isEmpty()) {
+                final Role role = Role.builder()
+                    .name(roleName)
+                    .bitIndex(this.roleRepository.nextBitIndex())
+                    .createdBy("APP")
+                    .createdDate(LocalDateTime.now())
+                    .build();
+                this.roleRepository.save(role);
+                log.info("Saved Role {} with ID: {}", roleName, role.getId());
+            }
+        }
+        RoleRegistry.load(this.roleRepository.findAll());
+    }
+}
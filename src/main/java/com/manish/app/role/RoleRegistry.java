@@ -0,0 +1,130 @@
+package com.manish.app.role;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory catalog of the roles, loaded once at startup and whenever roles are created.
+ * <p>
+ * Every role owns one bit of a user's {@code ROLE_MASK} ({@code ROLES.BIT_INDEX}), so a user's
+ * authorities are resolved from the mask without joining {@code USERS_ROLES}. Authorities are
+ * interned, one {@link GrantedAuthority} per role, and the authority list of every possible mask
+ * is built once per catalog while there are few enough roles, so resolving them allocates
+ * nothing. Static because entities and token principals, which are not beans, resolve their
+ * authorities on every authorization check.
+ */
+public final class RoleRegistry {
+
+    /**
+     * Roles that fit into the mask.
+     */
+    public static final int MAX_ROLES = Long.SIZE;
+    // 2^12 precomputed lists, beyond that lists are built per call
+    private static final int MAX_PRECOMPUTED_BITS = 12;
+
+    private static volatile Catalog catalog = new Catalog(new GrantedAuthority[0], Map.of(), List.of());
+
+    private RoleRegistry() {
+    }
+
+    private record Catalog(GrantedAuthority[] authoritiesByBit, Map<String, Long> bitsByName,
+                           List<List<GrantedAuthority>> authoritiesByMask) {
+    }
+
+    /**
+     * Replaces the catalog with the given roles.
+     *
+     * @throws IllegalStateException if a role has no bit or shares it with another role
+     */
+    public static void load(final Collection<Role> roles) {
+        int highestBit = -1;
+        for (final Role role : roles) {
+            highestBit = Math.max(highestBit, bitIndex(role));
+        }
+        final GrantedAuthority[] authoritiesByBit = new GrantedAuthority[highestBit + 1];
+        final Map<String, Long> bitsByName = new HashMap<>();
+        for (final Role role : roles) {
+            final int bit = bitIndex(role);
+            if (authoritiesByBit[bit] != null) {
+                throw new IllegalStateException("Roles " + authoritiesByBit[bit].getAuthority() + " and "
+                    + role.getName() + " share bit " + bit);
+            }
+            authoritiesByBit[bit] = new SimpleGrantedAuthority(role.getName());
+            bitsByName.put(role.getName(), 1L << bit);
+        }
+        final List<List<GrantedAuthority>> authoritiesByMask = new ArrayList<>();
+        if (authoritiesByBit.length <= MAX_PRECOMPUTED_BITS) {
+            for (long mask = 0; mask < 1L << authoritiesByBit.length; mask++) {
+                authoritiesByMask.add(resolve(authoritiesByBit, mask));
+            }
+        }
+        catalog = new Catalog(authoritiesByBit, Map.copyOf(bitsByName), List.copyOf(authoritiesByMask));
+    }
+
+    /**
+     * @return the mask with the bits of the given roles set
+     */
+    public static long mask(final Collection<Role> roles) {
+        long mask = 0;
+        for (final Role role : roles) {
+            mask |= 1L << bitIndex(role);
+        }
+        return mask;
+    }
+
+    /**
+     * @return the interned authorities of the roles in the mask, bits of unknown roles are ignored
+     */
+    public static List<GrantedAuthority> authorities(final long mask) {
+        final Catalog current = catalog;
+        final long known = current.authoritiesByBit().length == MAX_ROLES
+            ? mask : mask & ((1L << current.authoritiesByBit().length) - 1);
+        if (known < current.authoritiesByMask().size()) {
+            return current.authoritiesByMask().get((int) known);
+        }
+        return resolve(current.authoritiesByBit(), known);
+    }
+
+    /**
+     * @return whether the mask contains the role with the given name, {@code false} for unknown roles
+     */
+    public static boolean hasAuthority(final long mask, final String authority) {
+        final Long bit = catalog.bitsByName().get(authority);
+        return bit != null && (mask & bit) != 0;
+    }
+
+    /**
+     * @return the interned authority of a known role, a new one for any other name
+     */
+    public static GrantedAuthority authority(final String name) {
+        final Catalog current = catalog;
+        final Long bit = current.bitsByName().get(name);
+        return bit != null
+            ? current.authoritiesByBit()[Long.numberOfTrailingZeros(bit)]
+            : new SimpleGrantedAuthority(name);
+    }
+
+    private static List<GrantedAuthority> resolve(final GrantedAuthority[] authoritiesByBit, final long mask) {
+        final List<GrantedAuthority> authorities = new ArrayList<>(Long.bitCount(mask));
+        for (int bit = 0; bit < authoritiesByBit.length; bit++) {
+            if ((mask & 1L << bit) != 0 && authoritiesByBit[bit] != null) {
+                authorities.add(authoritiesByBit[bit]);
+            }
+        }
+        return List.copyOf(authorities);
+    }
+
+    private static int bitIndex(final Role role) {
+        final Integer bit = role.getBitIndex();
+        if (bit == null || bit < 0 || bit >= MAX_ROLES) {
+            throw new IllegalStateException("Role " + role.getName() + " has no valid bit index: " + bit);
+        }
+        return bit;
+    }
+}
@@ -1,10 +1,27 @@
 package com.manish.app.role;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 
 public interface RoleRepository extends JpaRepository<Role, String> {
 
+    /**
+     * Served from the query cache, roles are looked up on every registration and import.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Role.QUERY_CACHE_REGION)
+    })
     Optional<Role> findByName(String roleUser);
+
+    /**
+     * @return the lowest bit index above every assigned one, for a new role
+     */
+    @Query("select coalesce(max(r.bitIndex) + 1, 0) from Role r")
+    int nextBitIndex();
 }
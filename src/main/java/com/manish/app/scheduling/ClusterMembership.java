@@ -0,0 +1,87 @@
+package com.manish.app.scheduling;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Tracks the live nodes of the cluster through heartbeats in {@code SCHEDULER_NODES}, so work
+ * can be partitioned across them. A node counts as live while its last heartbeat is younger than
+ * the configured timeout; a node shutting down removes its row.
+ */
+@Slf4j
+@Component
+public class ClusterMembership {
+
+    private static final String TOUCH = "update SCHEDULER_NODES set HEARTBEAT_AT = ? where NODE_ID = ?";
+    private static final String INSERT = "insert into SCHEDULER_NODES (NODE_ID, HEARTBEAT_AT) values (?, ?)";
+    private static final String LIVE_NODES = "select NODE_ID from SCHEDULER_NODES where HEARTBEAT_AT > ? order by NODE_ID";
+    private static final String REMOVE = "delete from SCHEDULER_NODES where NODE_ID = ?";
+    private static final String REMOVE_DEAD = "delete from SCHEDULER_NODES where HEARTBEAT_AT < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NodeIdentity nodeIdentity;
+    private final Duration timeout;
+
+    public ClusterMembership(
+        final JdbcTemplate jdbcTemplate,
+        final NodeIdentity nodeIdentity,
+        @Value("${app.scheduling.node-timeout:30s}") final Duration timeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nodeIdentity = nodeIdentity;
+        this.timeout = timeout;
+    }
+
+    @PostConstruct
+    public void join() {
+        heartbeat();
+        log.info("Node {} joined the scheduler cluster", this.nodeIdentity.getNodeId());
+    }
+
+    @Scheduled(fixedDelayString = "${app.scheduling.heartbeat-interval:10000}")
+    public void heartbeat() {
+        final Timestamp now = new Timestamp(System.currentTimeMillis());
+        final String nodeId = this.nodeIdentity.getNodeId();
+        if (this.jdbcTemplate.update(TOUCH, now, nodeId) == 0) {
+            this.jdbcTemplate.update(INSERT, nodeId, now);
+        }
+        // rows of nodes that died without leaving, kept for a while to make the cause visible
+        this.jdbcTemplate.update(REMOVE_DEAD, new Timestamp(now.getTime() - 10 * this.timeout.toMillis()));
+    }
+
+    /**
+     * Live node ids in a stable order, including this node.
+     */
+    public List<String> liveNodes() {
+        final Timestamp threshold = new Timestamp(System.currentTimeMillis() - this.timeout.toMillis());
+        return this.jdbcTemplate.queryForList(LIVE_NODES, String.class, threshold);
+    }
+
+    /**
+     * The share of the id space this node is responsible for, by its position among the live
+     * nodes. While membership changes two nodes may briefly cover the same ids, so work done per
+     * partition must tolerate being repeated.
+     */
+    public IdPartition ownPartition() {
+        final List<String> nodes = liveNodes();
+        final int index = nodes.indexOf(this.nodeIdentity.getNodeId());
+        if (index < 0) {
+            // heartbeat not visible yet, take everything rather than nothing
+            return IdPartition.ALL;
+        }
+        return new IdPartition(index, nodes.size());
+    }
+
+    @PreDestroy
+    public void leave() {
+        this.jdbcTemplate.update(REMOVE, this.nodeIdentity.getNodeId());
+    }
+}
@@ -0,0 +1,32 @@
+package com.manish.app.scheduling;
+
+import java.util.UUID;
+
+/**
+ * One of {@code count} disjoint shares of the id space, {@link #ALL} being the only share of one.
+ * <p>
+ * Ids are time-ordered UUIDs, their leading bytes are a timestamp and say nothing about balance,
+ * so ids are assigned by their trailing random bits instead of by range.
+ *
+ * @param index share of this member, from {@code 0} to {@code count - 1}
+ */
+public record IdPartition(int index, int count) {
+
+    public static final IdPartition ALL = new IdPartition(0, 1);
+
+    public IdPartition {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Invalid partition " + index + " of " + count);
+        }
+    }
+
+    public boolean contains(final String id) {
+        return this.count == 1
+            || Long.remainderUnsigned(UUID.fromString(id).getLeastSignificantBits(), this.count) == this.index;
+    }
+
+    @Override
+    public String toString() {
+        return this.index + "/" + this.count;
+    }
+}
@@ -0,0 +1,77 @@
+package com.manish.app.scheduling;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+
+/**
+ * Cluster-wide mutual exclusion for scheduled jobs, backed by {@code SCHEDULER_LOCKS}.
+ * <p>
+ * A lock is a lease: taking it is a single conditional update (or the insert of the first row)
+ * that only succeeds once the previous lease expired or was released, so a node that dies while
+ * holding it blocks the job for at most the lease time. Leases compare node clocks, which must
+ * be kept in sync (NTP).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JobLock {
+
+    private static final String TAKE_EXPIRED = """
+        update SCHEDULER_LOCKS set LOCKED_BY = ?, LOCKED_AT = ?, LOCKED_UNTIL = ?
+        where NAME = ? and LOCKED_UNTIL <= ?
+        """;
+    private static final String INSERT = """
+        insert into SCHEDULER_LOCKS (NAME, LOCKED_BY, LOCKED_AT, LOCKED_UNTIL) values (?, ?, ?, ?)
+        """;
+    private static final String RELEASE = """
+        update SCHEDULER_LOCKS set LOCKED_UNTIL = ? where NAME = ? and LOCKED_BY = ?
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NodeIdentity nodeIdentity;
+
+    /**
+     * Runs the task if this node gets the lease, and releases the lease afterwards.
+     *
+     * @param leaseTime upper bound of the run, the lease expires after it even if never released
+     * @return {@code false} if another node holds the lease and the task was skipped
+     */
+    public boolean runExclusively(final String name, final Duration leaseTime, final Runnable task) {
+        if (!tryAcquire(name, leaseTime)) {
+            log.debug("Job {} is locked by another node, skipping", name);
+            return false;
+        }
+        try {
+            task.run();
+        } finally {
+            release(name);
+        }
+        return true;
+    }
+
+    public boolean tryAcquire(final String name, final Duration leaseTime) {
+        final long now = System.currentTimeMillis();
+        final Timestamp lockedAt = new Timestamp(now);
+        final Timestamp lockedUntil = new Timestamp(now + leaseTime.toMillis());
+        final String nodeId = this.nodeIdentity.getNodeId();
+        if (this.jdbcTemplate.update(TAKE_EXPIRED, nodeId, lockedAt, lockedUntil, name, lockedAt) == 1) {
+            return true;
+        }
+        try {
+            return this.jdbcTemplate.update(INSERT, name, nodeId, lockedAt, lockedUntil) == 1;
+        } catch (final DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    public void release(final String name) {
+        this.jdbcTemplate.update(RELEASE, new Timestamp(System.currentTimeMillis()), name,
+            this.nodeIdentity.getNodeId());
+    }
+}
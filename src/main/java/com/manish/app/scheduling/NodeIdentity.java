@@ -0,0 +1,37 @@
+package com.manish.app.scheduling;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.UUID;
+
+/**
+ * Identifies this application instance in lock and membership tables: the configured
+ * {@code app.scheduling.node-id}, or the host name plus a random suffix so that several
+ * instances on one host stay distinct.
+ */
+@Component
+public class NodeIdentity {
+
+    private final String nodeId;
+
+    public NodeIdentity(@Value("${app.scheduling.node-id:}") final String configuredNodeId) {
+        this.nodeId = configuredNodeId.isBlank()
+            ? hostName() + "-" + UUID.randomUUID().toString().substring(0, 8)
+            : configuredNodeId;
+    }
+
+    public String getNodeId() {
+        return this.nodeId;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (final UnknownHostException e) {
+            return "node";
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.manish.app.scheduling;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lease row of a scheduled job, written by {@link JobLock} only. Mapped so the table is part of
+ * the schema.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "SCHEDULER_LOCKS")
+public class SchedulerLock {
+
+    @Id
+    @Column(name = "NAME", length = 64)
+    private String name;
+
+    @Column(name = "LOCKED_BY", nullable = false)
+    private String lockedBy;
+
+    @Column(name = "LOCKED_AT", nullable = false)
+    private LocalDateTime lockedAt;
+
+    @Column(name = "LOCKED_UNTIL", nullable = false)
+    private LocalDateTime lockedUntil;
+}
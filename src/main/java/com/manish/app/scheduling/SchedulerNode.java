@@ -0,0 +1,30 @@
+package com.manish.app.scheduling;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Heartbeat row of a running node, written by {@link ClusterMembership} only. Mapped so the
+ * table is part of the schema.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "SCHEDULER_NODES")
+public class SchedulerNode {
+
+    @Id
+    @Column(name = "NODE_ID", length = 128)
+    private String nodeId;
+
+    @Column(name = "HEARTBEAT_AT", nullable = false)
+    private LocalDateTime heartbeatAt;
+}
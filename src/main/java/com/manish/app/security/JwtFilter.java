@@ -1,13 +1,17 @@
 package com.manish.app.security;
 
+import com.manish.app.common.timing.ServerTiming;
+import com.manish.app.role.RoleCatalogInitializer;
 import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -20,18 +24,46 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 
 @Component
-@RequiredArgsConstructor
+@DependsOn(RoleCatalogInitializer.BEAN_NAME)
 public class JwtFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final PrincipalVersionTracker principalVersionTracker;
+    private final TokenDenylist tokenDenylist;
+    // outcome per request: no token to check, token accepted, token refused
+    private final Counter skipped;
+    private final Counter authenticated;
+    private final Counter rejected;
     private static final Logger log = LoggerFactory.getLogger(JwtFilter.class);
 
     // Configurable excluded paths (e.g., from application.properties)
     private static final List<String> EXCLUDED_PATHS = List.of("/api/v1/auth");
 
+    public JwtFilter(
+        final JwtService jwtService,
+        final UserDetailsService userDetailsService,
+        final PrincipalVersionTracker principalVersionTracker,
+        final TokenDenylist tokenDenylist,
+        final MeterRegistry meterRegistry) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.principalVersionTracker = principalVersionTracker;
+        this.tokenDenylist = tokenDenylist;
+        this.skipped = outcomeCounter("skipped", meterRegistry);
+        this.authenticated = outcomeCounter("authenticated", meterRegistry);
+        this.rejected = outcomeCounter("rejected", meterRegistry);
+    }
+
+    private static Counter outcomeCounter(final String outcome, final MeterRegistry meterRegistry) {
+        return Counter.builder("auth.jwt.filter")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
     @Override
     protected void doFilterInternal(
         HttpServletRequest request,
@@ -41,6 +73,7 @@ public class JwtFilter extends OncePerRequestFilter {
 
         // Skip authentication for excluded paths
         if (EXCLUDED_PATHS.stream().anyMatch(path -> request.getServletPath().contains(path))) {
+            skipped.increment();
             filterChain.doFilter(request, response);
             return;
         }
@@ -48,6 +81,7 @@ public class JwtFilter extends OncePerRequestFilter {
         final String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            skipped.increment();
             filterChain.doFilter(request, response);
             return;
         }
@@ -57,24 +91,32 @@ public class JwtFilter extends OncePerRequestFilter {
         try {
             final String username = jwtService.extractUsername(jwt);
             // Validate JWT token and load user details if valid
+            Counter outcome = skipped;
             if (username != null && SecurityContextHolder.getContext()
                 .getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-                if (userDetails != null && jwtService.isTokenValid(jwt, userDetails.getUsername())) {
-                    UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                        );
-                    authToken.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                // rejected unless the token turns out valid, revoked tokens included
+                outcome = rejected;
+                if (!isRevoked(jwt)) {
+                    UserDetails userDetails = resolvePrincipal(jwt, username);
+
+                    if (userDetails != null && jwtService.isTokenValid(jwt, userDetails.getUsername())) {
+                        UsernamePasswordAuthenticationToken authToken =
+                            new UsernamePasswordAuthenticationToken(
+                                userDetails,
+                                null,
+                                userDetails.getAuthorities()
+                            );
+                        authToken.setDetails(
+                            new WebAuthenticationDetailsSource().buildDetails(request));
+                        SecurityContextHolder.getContext().setAuthentication(authToken);
+                        outcome = authenticated;
+                    }
                 }
             }
+            outcome.increment();
             filterChain.doFilter(request, response);
         } catch (JwtException | UsernameNotFoundException e) {
+            rejected.increment();
             log.warn("JWT validation failed for path {}: {}", request.getServletPath(),
                 e.getMessage());
             SecurityContextHolder.clearContext(); // Clear context on failure
@@ -86,4 +128,47 @@ public class JwtFilter extends OncePerRequestFilter {
         }
 
     }
+
+    private boolean isRevoked(final String jwt) {
+        final boolean revoked = jwtService.extractTokenId(jwt)
+            .map(tokenDenylist::isRevoked)
+            .orElse(false);
+        if (revoked) {
+            log.debug("Rejecting revoked token");
+        }
+        return revoked;
+    }
+
+    /**
+     * In stateless principal mode the principal is rebuilt from the verified claims and the
+     * database is only consulted when this node knows the account changed since the token was
+     * issued. Otherwise the user is loaded, and a token issued for an older token version is
+     * rejected.
+     */
+    private UserDetails resolvePrincipal(final String jwt, final String username) {
+        final long start = ServerTiming.start();
+        try {
+            return loadPrincipal(jwt, username);
+        } finally {
+            ServerTiming.stop(ServerTiming.Phase.USER, start);
+        }
+    }
+
+    private UserDetails loadPrincipal(final String jwt, final String username) {
+        if (jwtService.isStatelessPrincipalEnabled()) {
+            final Optional<TokenPrincipal> principal = jwtService.extractPrincipal(jwt);
+            if (principal.isPresent() && !principalVersionTracker.isStale(
+                principal.get().getId(), principal.get().getTokenVersion())) {
+                return principal.get();
+            }
+        }
+        final UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        final Optional<Integer> tokenVersion = jwtService.extractTokenVersion(jwt);
+        if (userDetails instanceof UserPrincipal user && tokenVersion.isPresent()
+            && tokenVersion.get() != user.getTokenVersion()) {
+            log.debug("Rejecting token issued for an outdated version of user {}", user.getId());
+            return null;
+        }
+        return userDetails;
+    }
 }
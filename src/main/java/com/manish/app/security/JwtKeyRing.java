@@ -0,0 +1,43 @@
+package com.manish.app.security;
+
+import lombok.Getter;
+
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of the keys in use: every key a token may be verified with, indexed by key
+ * id, and the single key new tokens are signed with. A new snapshot is published as a whole on
+ * rotation, so readers never observe a partially reloaded key set.
+ */
+@Getter
+public final class JwtKeyRing {
+
+    private final Map<String, PublicKey> verificationKeys;
+    private final String signingKeyId;
+    private final PrivateKey signingKey;
+
+    public JwtKeyRing(final Map<String, PublicKey> verificationKeys, final String signingKeyId,
+        final PrivateKey signingKey) {
+        if (!verificationKeys.containsKey(signingKeyId)) {
+            throw new IllegalArgumentException("No public key for signing key id: " + signingKeyId);
+        }
+        this.verificationKeys = Map.copyOf(verificationKeys);
+        this.signingKeyId = signingKeyId;
+        this.signingKey = signingKey;
+    }
+
+    public PublicKey getVerificationKey(final String keyId) {
+        return this.verificationKeys.get(keyId);
+    }
+
+    public PublicKey getSigningPublicKey() {
+        return this.verificationKeys.get(this.signingKeyId);
+    }
+
+    public Set<String> getKeyIds() {
+        return this.verificationKeys.keySet();
+    }
+}
@@ -9,6 +9,8 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.annotation.Validated;
 
+import java.security.Provider;
+import java.security.Security;
 import java.util.List;
 
 /**
@@ -21,27 +23,50 @@ import java.util.List;
 @ConfigurationProperties(prefix = "jwt")
 public class JwtProperties {
 
-    private static final List<String> SUPPORTED_ALGORITHMS = List.of("RSA", "EC");
+    private static final List<String> SUPPORTED_ALGORITHMS = List.of("RSA", "EC", "Ed25519");
 
     /**
      * Path to the private key resource (e.g., classpath:/keys/private_key.pem).
+     * Ignored when a key directory is configured.
      */
-    @NotBlank(message = "Private key path must not be blank")
     private String privateKeyPath;
 
     /**
      * Path to the public key resource (e.g., classpath:/keys/public_key.pem).
+     * Ignored when a key directory is configured.
      */
-    @NotBlank(message = "Public key path must not be blank")
     private String publicKeyPath;
 
     /**
-     * Key algorithm (e.g., RSA, EC). Default is RSA.
+     * Filesystem directory holding the key ring as {@code <kid>.public.pem} and
+     * {@code <kid>.private.pem} files. When set, it takes precedence over the classpath key paths.
+     */
+    private String keyDirectory;
+
+    /**
+     * Key id to sign new tokens with. Defaults to the greatest key id that has a private key,
+     * so date-prefixed key ids roll over by simply adding the next key pair.
+     */
+    private String activeKeyId;
+
+    /**
+     * Whether to watch the key directory and publish a new key ring when files change.
+     */
+    private boolean watchKeyDirectory = true;
+
+    /**
+     * Key algorithm: RSA (RS256), EC on the P-256 curve (ES256) or Ed25519 (EdDSA). Default is RSA.
      */
     @NotBlank(message = "Algorithm must not be blank")
-    @Pattern(regexp = "RSA|EC", message = "Algorithm must be one of: RSA or EC")
+    @Pattern(regexp = "RSA|EC|Ed25519", message = "Algorithm must be one of: RSA, EC or Ed25519")
     private String algorithm = "RSA";
 
+    /**
+     * Name of the installed JCA provider used for key parsing, signing and verification
+     * (e.g., SunEC, SunRsaSign). Defaults to the JVM's provider preference order.
+     */
+    private String provider;
+
     /**
      * Validates properties after binding.
      */
@@ -51,6 +76,28 @@ public class JwtProperties {
             throw new IllegalArgumentException(
                 "Unsupported JWT algorithm: " + algorithm + ". Supported: " + SUPPORTED_ALGORITHMS);
         }
+        if (!isBlank(provider) && Security.getProvider(provider) == null) {
+            throw new IllegalArgumentException("JCA provider is not installed: " + provider);
+        }
+        if (isBlank(keyDirectory) && (isBlank(privateKeyPath) || isBlank(publicKeyPath))) {
+            throw new IllegalArgumentException(
+                "Either a key directory or both private and public key paths must be configured");
+        }
+    }
+
+    /**
+     * Returns the configured JCA provider, or {@code null} to use the JVM default.
+     */
+    public Provider resolveProvider() {
+        return isBlank(provider) ? null : Security.getProvider(provider);
+    }
+
+    public boolean hasKeyDirectory() {
+        return !isBlank(keyDirectory);
+    }
+
+    private static boolean isBlank(final String value) {
+        return value == null || value.isBlank();
     }
 
     // Setters are package-private to restrict modifications to within the package
@@ -65,4 +112,20 @@ public class JwtProperties {
     void setAlgorithm(String algorithm) {
         this.algorithm = algorithm;
     }
+
+    void setProvider(String provider) {
+        this.provider = provider;
+    }
+
+    void setKeyDirectory(String keyDirectory) {
+        this.keyDirectory = keyDirectory;
+    }
+
+    void setActiveKeyId(String activeKeyId) {
+        this.activeKeyId = activeKeyId;
+    }
+
+    void setWatchKeyDirectory(boolean watchKeyDirectory) {
+        this.watchKeyDirectory = watchKeyDirectory;
+    }
 }
@@ -1,15 +1,27 @@
 package com.manish.app.security;
 
+import com.manish.app.common.timing.ServerTiming;
+import com.manish.app.role.RoleRegistry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
 
-import java.security.PrivateKey;
-import java.security.PublicKey;
+import java.security.Key;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtService {
@@ -17,18 +29,38 @@ public class JwtService {
     private final KeyUtils keyUtils;
 
     private final String TOKEN_TYPE = "token_type";
-    private final PrivateKey privateKey;
-    private final PublicKey publicKey;
+    private static final String USER_ID = "uid";
+    private static final String AUTHORITIES = "authorities";
+    private static final String ENABLED = "enabled";
+    private static final String LOCKED = "locked";
+    private static final String CREDENTIAL_EXPIRED = "credential_expired";
+    private static final String TOKEN_VERSION = "ver";
+    private final JwtParser jwtParser;
+    private final VerifiedClaimsCache claimsCache;
+    private final Timer signTimer;
+    private final Timer verifyTimer;
     @Value("${app.security.jwt.access-token-expiration}")
     private long accessTokenExpiration;
-    @Value("${app.security.jwt.refresh-token-expiration}")
-    private long refreshTokenExpiration;
+    @Value("${app.security.jwt.stateless-principal.enabled:false}")
+    private boolean statelessPrincipal;
 
 
-    public JwtService(KeyUtils keyUtils)  throws Exception {
+    public JwtService(KeyUtils keyUtils, VerifiedClaimsCache claimsCache, MeterRegistry meterRegistry)  throws Exception {
         this.keyUtils = keyUtils;
-        this.privateKey = keyUtils.getPrivateKey();
-        this.publicKey = keyUtils.getPublicKey();
+        this.claimsCache = claimsCache;
+        this.signTimer = Timer.builder("auth.jwt.sign")
+            .tag("algorithm", keyUtils.getAlgorithm())
+            .register(meterRegistry);
+        // only signature checks are timed, tokens served from the claims cache are not verified again
+        this.verifyTimer = Timer.builder("auth.jwt.verify")
+            .tag("algorithm", keyUtils.getAlgorithm())
+            .register(meterRegistry);
+        // parsers are immutable and thread-safe, build it once instead of per token;
+        // the key locator reads the current key ring so rotations apply immediately
+        this.jwtParser = Jwts.parser()
+            .provider(keyUtils.getProvider())
+            .keyLocator(new KeyRingLocator())
+            .build();
     }
 
     public String generateAccessToken(final String username) {
@@ -36,57 +68,146 @@ public class JwtService {
         return buildToken(username, claims, this.accessTokenExpiration);
     }
 
-    public String generateRefreshToken(final String username) {
-        final Map<String, Object> claims = Map.of(TOKEN_TYPE, "ACCESS_TOKEN");
-        return buildToken(username, claims, this.refreshTokenExpiration);
+    /**
+     * Issues an access token for the principal. The token always carries the account's token
+     * version; in stateless principal mode it also carries everything needed to rebuild the
+     * principal without a database lookup.
+     */
+    public String generateAccessToken(final UserPrincipal principal) {
+        final Map<String, Object> claims = new HashMap<>();
+        claims.put(TOKEN_TYPE, "ACCESS_TOKEN");
+        claims.put(TOKEN_VERSION, principal.getTokenVersion());
+        if (this.statelessPrincipal) {
+            claims.put(USER_ID, principal.getId());
+            claims.put(AUTHORITIES, principal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
+            claims.put(ENABLED, principal.isEnabled());
+            claims.put(LOCKED, !principal.isAccountNonLocked());
+            claims.put(CREDENTIAL_EXPIRED, !principal.isCredentialsNonExpired());
+        }
+        return buildToken(principal.getUsername(), claims, this.accessTokenExpiration);
     }
 
     private String buildToken(final String username, final Map<String, Object> claims, final long expiration) {
-        return Jwts.builder()
+        final long start = System.nanoTime();
+        final JwtKeyRing keyRing = this.keyUtils.getKeyRing();
+        // the signature algorithm follows the key: RS256 for RSA, ES256 for P-256, EdDSA for Ed25519
+        final String token = Jwts.builder()
+            .provider(this.keyUtils.getProvider())
+            .header().keyId(keyRing.getSigningKeyId()).and()
+            .id(UUID.randomUUID().toString())
             .claims(claims)
             .subject(username)
             .issuedAt(new Date(System.currentTimeMillis()))
             .expiration(new Date(System.currentTimeMillis() + expiration))
-            .signWith(this.privateKey)
+            .signWith(keyRing.getSigningKey())
             .compact();
+        this.signTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return token;
     }
 
     public boolean isTokenValid(final String token, final String expectedUsername) {
-        final String username = extractUsername(token);
-        return username.equals(expectedUsername) && !isTokenExpired(token);
+        final Claims claims = extractClaims(token);
+        return claims.getSubject().equals(expectedUsername) && !isTokenExpired(claims);
     }
 
     public String extractUsername(final String token) {
         return extractClaims(token).getSubject();
     }
 
+    /**
+     * Returns the token version the token was issued with, if it carries one.
+     */
+    public Optional<Integer> extractTokenVersion(final String token) {
+        return Optional.ofNullable(extractClaims(token).get(TOKEN_VERSION, Integer.class));
+    }
+
+    /**
+     * Returns the {@code jti} of the token, absent for tokens issued before ids were added.
+     */
+    public Optional<String> extractTokenId(final String token) {
+        return Optional.ofNullable(extractClaims(token).getId());
+    }
+
+    public Date extractExpiration(final String token) {
+        return extractClaims(token).getExpiration();
+    }
+
+    public boolean isStatelessPrincipalEnabled() {
+        return this.statelessPrincipal;
+    }
+
+    /**
+     * Rebuilds the principal from the verified claims of an access token issued in stateless
+     * principal mode. Tokens issued without the principal claims yield an empty result.
+     */
+    public Optional<TokenPrincipal> extractPrincipal(final String token) {
+        final Claims claims = extractClaims(token);
+        final String userId = claims.get(USER_ID, String.class);
+        if (userId == null) {
+            return Optional.empty();
+        }
+        final List<?> authorityNames = claims.get(AUTHORITIES, List.class);
+        final List<GrantedAuthority> authorities = authorityNames == null ? List.of()
+            : authorityNames.stream()
+                .map(name -> RoleRegistry.authority(String.valueOf(name)))
+                .toList();
+        return Optional.of(new TokenPrincipal(
+            userId,
+            claims.getSubject(),
+            authorities,
+            Boolean.TRUE.equals(claims.get(ENABLED, Boolean.class)),
+            Boolean.TRUE.equals(claims.get(LOCKED, Boolean.class)),
+            Boolean.TRUE.equals(claims.get(CREDENTIAL_EXPIRED, Boolean.class)),
+            Optional.ofNullable(claims.get(TOKEN_VERSION, Integer.class)).orElse(0)
+        ));
+    }
+
     private Claims extractClaims(final String token) {
+        return this.claimsCache.get(token, this::verifyClaims);
+    }
+
+    // package-private so benchmarks can measure verification without the claims cache
+    Claims verifyClaims(final String token) {
+        final long start = System.nanoTime();
         try {
-            return Jwts.parser()
-                .verifyWith(this.publicKey)
-                .build()
+            return this.jwtParser
                 .parseSignedClaims(token)
                 .getPayload();
         } catch (final JwtException e) {
             throw new RuntimeException("Invalid JWT token ", e);
+        } finally {
+            final long elapsed = System.nanoTime() - start;
+            this.verifyTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            ServerTiming.record(ServerTiming.Phase.JWT, elapsed);
         }
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractClaims(token).getExpiration()
+    private boolean isTokenExpired(final Claims claims) {
+        return claims.getExpiration()
             .before(new Date());
     }
 
-    public String refreshAccessToken(final String refreshToken) {
-        final Claims claims = extractClaims(refreshToken);
-        if (!"REFRESH_TOKEN".equals(claims.get(TOKEN_TYPE))) {
-            throw new RuntimeException("Invalid token type");
-        }
-        if (isTokenExpired(refreshToken)) {
-            throw new RuntimeException("Refresh token expired");
+    /**
+     * Resolves the verification key from the {@code kid} header. Tokens issued before key ids
+     * were introduced carry no {@code kid} and are verified with the current signing key.
+     */
+    private final class KeyRingLocator extends LocatorAdapter<Key> {
+
+        @Override
+        protected Key locate(final JwsHeader header) {
+            final JwtKeyRing keyRing = keyUtils.getKeyRing();
+            final String keyId = header.getKeyId();
+            if (keyId == null) {
+                return keyRing.getSigningPublicKey();
+            }
+            final Key key = keyRing.getVerificationKey(keyId);
+            if (key == null) {
+                throw new JwtException("Unknown signing key id: " + keyId);
+            }
+            return key;
         }
-        final String username = claims.getSubject();
-        return generateAccessToken(username);
     }
 
 }
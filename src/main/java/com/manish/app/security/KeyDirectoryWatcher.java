@@ -0,0 +1,88 @@
+package com.manish.app.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the configured key directory and reloads the key ring when PEM files are added,
+ * replaced or removed, so keys can be rotated without restarting the application.
+ * <p>
+ * Events are debounced until the directory has been quiet for a short while, which lets a
+ * deployment tool copy a private and a public key file before the new key ring is built.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class KeyDirectoryWatcher {
+
+    private static final long QUIET_PERIOD_MILLIS = 500;
+
+    private final JwtProperties jwtProperties;
+    private final KeyUtils keyUtils;
+
+    private WatchService watchService;
+    private Thread watcherThread;
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!jwtProperties.hasKeyDirectory() || !jwtProperties.isWatchKeyDirectory()) {
+            return;
+        }
+        final Path directory = Path.of(jwtProperties.getKeyDirectory());
+        this.watchService = FileSystems.getDefault().newWatchService();
+        directory.register(this.watchService,
+            StandardWatchEventKinds.ENTRY_CREATE,
+            StandardWatchEventKinds.ENTRY_MODIFY,
+            StandardWatchEventKinds.ENTRY_DELETE);
+        this.watcherThread = new Thread(this::watch, "jwt-key-watcher");
+        this.watcherThread.setDaemon(true);
+        this.watcherThread.start();
+        log.info("Watching {} for key rotation", directory);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (this.watchService != null) {
+            this.watchService.close();
+        }
+    }
+
+    private void watch() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = this.watchService.take();
+                // drain everything that arrives until the directory is quiet
+                while (key != null) {
+                    key.pollEvents();
+                    key.reset();
+                    key = this.watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                reload();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            log.debug("Key directory watcher closed");
+        }
+    }
+
+    private void reload() {
+        try {
+            this.keyUtils.reloadKeys();
+        } catch (RuntimeException e) {
+            log.error("Key rotation failed, keeping the current key ring: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.manish.app.security;
+
+import java.util.Set;
+
+/**
+ * Published after a new {@link JwtKeyRing} replaced the previous one.
+ *
+ * @param keyRing       the key ring now in use
+ * @param removedKeyIds ids of verification keys that are no longer trusted
+ */
+public record KeyRingRotatedEvent(JwtKeyRing keyRing, Set<String> removedKeyIds) {
+}
@@ -3,46 +3,118 @@ package com.manish.app.security;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.KeyFactory;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
+import java.security.Provider;
 import java.security.PublicKey;
+import java.security.interfaces.ECKey;
+import java.security.interfaces.EdECKey;
+import java.security.interfaces.RSAKey;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Utility class for loading cryptographic keys from PEM files for JWT authentication.
+ * <p>
+ * Keys are published as an immutable {@link JwtKeyRing} behind an atomic reference: readers on
+ * the request path never lock, and a reload swaps in a fully built key ring or keeps the old one.
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class KeyUtils {
 
+    static final String PUBLIC_KEY_SUFFIX = ".public.pem";
+    static final String PRIVATE_KEY_SUFFIX = ".private.pem";
+
     private final JwtProperties jwtProperties;
+    private final ApplicationEventPublisher eventPublisher;
 
-    private PrivateKey privateKey;
-    private PublicKey publicKey;
+    private final AtomicReference<JwtKeyRing> keyRing = new AtomicReference<>();
+    // serializes reloads only, reads of the key ring stay lock-free
+    private final ReentrantLock reloadLock = new ReentrantLock();
 
     @PostConstruct
     public void init() {
+        this.keyRing.set(loadKeyRing());
+    }
+
+    public JwtKeyRing getKeyRing() {
+        return keyRing.get();
+    }
+
+    public PrivateKey getPrivateKey() {
+        return keyRing.get().getSigningKey();
+    }
+
+    public PublicKey getPublicKey() {
+        return keyRing.get().getSigningPublicKey();
+    }
+
+    public String getAlgorithm() {
+        return jwtProperties.getAlgorithm();
+    }
+
+    /**
+     * JCA provider for signing and verification, {@code null} when the JVM default is used.
+     */
+    public Provider getProvider() {
+        return jwtProperties.resolveProvider();
+    }
+
+    /**
+     * Loads the keys again and publishes them as the new key ring. If loading fails the current
+     * key ring stays in use and the failure is rethrown.
+     */
+    public void reloadKeys() {
+        reloadLock.lock();
+        try {
+            final JwtKeyRing reloaded = loadKeyRing();
+            final JwtKeyRing previous = keyRing.getAndSet(reloaded);
+            final Set<String> removedKeyIds = new HashSet<>(previous.getKeyIds());
+            removedKeyIds.removeAll(reloaded.getKeyIds());
+            log.info("Keys reloaded successfully, signing with key id {}, {} verification keys",
+                reloaded.getSigningKeyId(), reloaded.getKeyIds().size());
+            eventPublisher.publishEvent(new KeyRingRotatedEvent(reloaded, Set.copyOf(removedKeyIds)));
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private JwtKeyRing loadKeyRing() {
+        final String source = jwtProperties.hasKeyDirectory() ? jwtProperties.getKeyDirectory()
+            : jwtProperties.getPrivateKeyPath() + " and " + jwtProperties.getPublicKeyPath();
         try {
-            this.privateKey = loadPrivateKey(jwtProperties.getPrivateKeyPath());
-            validateKeyStrength(privateKey);
-            this.publicKey = loadPublicKey(jwtProperties.getPublicKeyPath());
-            validateKeyStrength(publicKey);
-            log.info("Successfully loaded {} keys from {} and {}", jwtProperties.getAlgorithm(),
-                jwtProperties.getPrivateKeyPath(), jwtProperties.getPublicKeyPath());
+            final JwtKeyRing ring = jwtProperties.hasKeyDirectory()
+                ? loadFromDirectory(Path.of(jwtProperties.getKeyDirectory()))
+                : loadFromClasspath();
+            log.info("Successfully loaded {} keys {} from {}", jwtProperties.getAlgorithm(),
+                ring.getKeyIds(), source);
+            return ring;
         } catch (IOException e) {
-            log.error("I/O error while loading keys from {} or {}", jwtProperties.getPrivateKeyPath(),
-                jwtProperties.getPublicKeyPath(), e);
+            log.error("I/O error while loading keys from {}", source, e);
             throw new IllegalStateException("Failed to load keys due to I/O error", e);
         } catch (NoSuchAlgorithmException e) {
             log.error("Unsupported algorithm: {}", jwtProperties.getAlgorithm(), e);
@@ -51,78 +123,137 @@ public class KeyUtils {
             log.error("Invalid key specification for {} keys", jwtProperties.getAlgorithm(), e);
             throw new IllegalStateException("Failed to load keys due to invalid key specification", e);
         } catch (IllegalArgumentException e) {
-            log.error("Invalid PEM format or missing key markers in {} or {}", jwtProperties.getPrivateKeyPath(),
-                jwtProperties.getPublicKeyPath(), e);
+            log.error("Invalid PEM format or missing key markers in {}", source, e);
             throw new IllegalStateException("Failed to load keys due to malformed key files", e);
         }
     }
 
-    public PrivateKey getPrivateKey() {
-        return privateKey;
+    private JwtKeyRing loadFromClasspath() throws IOException, NoSuchAlgorithmException, InvalidKeySpecException {
+        final PrivateKey privateKey = loadPrivateKey(readClasspathPem(jwtProperties.getPrivateKeyPath(), "PRIVATE KEY"));
+        validateKeyStrength(privateKey);
+        final PublicKey publicKey = loadPublicKey(readClasspathPem(jwtProperties.getPublicKeyPath(), "PUBLIC KEY"));
+        validateKeyStrength(publicKey);
+        final String keyId = thumbprint(publicKey);
+        return new JwtKeyRing(Map.of(keyId, publicKey), keyId, privateKey);
     }
 
-    public PublicKey getPublicKey() {
-        return publicKey;
+    private JwtKeyRing loadFromDirectory(final Path directory) throws IOException, NoSuchAlgorithmException, InvalidKeySpecException {
+        final Map<String, PublicKey> publicKeys = new HashMap<>();
+        final TreeMap<String, PrivateKey> privateKeys = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.pem")) {
+            for (final Path file : files) {
+                final String fileName = file.getFileName().toString();
+                if (fileName.endsWith(PUBLIC_KEY_SUFFIX)) {
+                    final PublicKey publicKey = loadPublicKey(readFilePem(file, "PUBLIC KEY"));
+                    validateKeyStrength(publicKey);
+                    publicKeys.put(keyId(fileName, PUBLIC_KEY_SUFFIX), publicKey);
+                } else if (fileName.endsWith(PRIVATE_KEY_SUFFIX)) {
+                    final PrivateKey privateKey = loadPrivateKey(readFilePem(file, "PRIVATE KEY"));
+                    validateKeyStrength(privateKey);
+                    privateKeys.put(keyId(fileName, PRIVATE_KEY_SUFFIX), privateKey);
+                }
+            }
+        }
+        privateKeys.keySet().retainAll(publicKeys.keySet());
+        if (privateKeys.isEmpty()) {
+            throw new IllegalArgumentException("No complete key pair found in " + directory);
+        }
+        final String signingKeyId = jwtProperties.getActiveKeyId() != null
+            ? jwtProperties.getActiveKeyId()
+            : privateKeys.lastKey();
+        final PrivateKey signingKey = privateKeys.get(signingKeyId);
+        if (signingKey == null) {
+            throw new IllegalArgumentException("No key pair found for active key id: " + signingKeyId);
+        }
+        return new JwtKeyRing(publicKeys, signingKeyId, signingKey);
     }
 
-    public String getAlgorithm() {
-        return jwtProperties.getAlgorithm();
+    private static String keyId(final String fileName, final String suffix) {
+        return fileName.substring(0, fileName.length() - suffix.length());
     }
 
-    public void reloadKeys() {
-        init();
-        log.info("Keys reloaded successfully");
+    /**
+     * Derives a stable key id from the encoded public key, used when keys are not named.
+     */
+    private static String thumbprint(final PublicKey publicKey) throws NoSuchAlgorithmException {
+        final byte[] hash = MessageDigest.getInstance("SHA-256").digest(publicKey.getEncoded());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16));
     }
 
-    private PrivateKey loadPrivateKey(String pemPath) throws IOException, NoSuchAlgorithmException, InvalidKeySpecException {
-        String key = extractKeyFromPEM(pemPath, "PRIVATE KEY");
+    private PrivateKey loadPrivateKey(String key) throws NoSuchAlgorithmException, InvalidKeySpecException {
         byte[] decoded = Base64.getDecoder().decode(key);
         PKCS8EncodedKeySpec spec = new PKCS8EncodedKeySpec(decoded);
-        return KeyFactory.getInstance(jwtProperties.getAlgorithm()).generatePrivate(spec);
+        return keyFactory().generatePrivate(spec);
     }
 
-    private PublicKey loadPublicKey(String pemPath) throws IOException, NoSuchAlgorithmException, InvalidKeySpecException {
-        String key = extractKeyFromPEM(pemPath, "PUBLIC KEY");
+    private PublicKey loadPublicKey(String key) throws NoSuchAlgorithmException, InvalidKeySpecException {
         byte[] decoded = Base64.getDecoder().decode(key);
         X509EncodedKeySpec spec = new X509EncodedKeySpec(decoded);
-        return KeyFactory.getInstance(jwtProperties.getAlgorithm()).generatePublic(spec);
+        return keyFactory().generatePublic(spec);
     }
 
-    private String extractKeyFromPEM(String path, String keyType) throws IOException {
+    private KeyFactory keyFactory() throws NoSuchAlgorithmException {
+        final Provider provider = jwtProperties.resolveProvider();
+        return provider == null
+            ? KeyFactory.getInstance(jwtProperties.getAlgorithm())
+            : KeyFactory.getInstance(jwtProperties.getAlgorithm(), provider);
+    }
+
+    private String readClasspathPem(String path, String keyType) throws IOException {
         try (InputStream is = KeyUtils.class.getResourceAsStream(path)) {
             if (is == null) {
                 throw new IllegalArgumentException("Key file not found: " + path);
             }
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(is))) {
-                StringBuilder keyBuilder = new StringBuilder();
-                String line;
-                String beginMarker = "-----BEGIN " + keyType + "-----";
-                String endMarker = "-----END " + keyType + "-----";
-                while ((line = reader.readLine()) != null) {
-                    if (line.contains(beginMarker)) {
-                        continue;
-                    }
-                    if (line.contains(endMarker)) {
-                        break;
-                    }
-                    keyBuilder.append(line);
+            return extractKeyFromPEM(is, path, keyType);
+        }
+    }
+
+    private String readFilePem(Path path, String keyType) throws IOException {
+        try (InputStream is = Files.newInputStream(path)) {
+            return extractKeyFromPEM(is, path.toString(), keyType);
+        }
+    }
+
+    private String extractKeyFromPEM(InputStream is, String path, String keyType) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(is))) {
+            StringBuilder keyBuilder = new StringBuilder();
+            String line;
+            String beginMarker = "-----BEGIN " + keyType + "-----";
+            String endMarker = "-----END " + keyType + "-----";
+            while ((line = reader.readLine()) != null) {
+                if (line.contains(beginMarker)) {
+                    continue;
                 }
-                String key = keyBuilder.toString();
-                if (key.isEmpty()) {
-                    throw new IllegalArgumentException("Invalid PEM format for " + keyType + ": " + path);
+                if (line.contains(endMarker)) {
+                    break;
                 }
-                return key;
+                keyBuilder.append(line);
+            }
+            String key = keyBuilder.toString();
+            if (key.isEmpty()) {
+                throw new IllegalArgumentException("Invalid PEM format for " + keyType + ": " + path);
             }
+            return key;
         }
     }
 
     private void validateKeyStrength(Object key) {
-        if (key instanceof java.security.interfaces.RSAKey) {
-            int keySize = ((java.security.interfaces.RSAKey) key).getModulus().bitLength();
+        if (key instanceof RSAKey rsaKey) {
+            int keySize = rsaKey.getModulus().bitLength();
             if (keySize < 2048) {
                 throw new IllegalArgumentException("Key size too weak: " + keySize + " bits. Minimum required: 2048 bits");
             }
+        } else if (key instanceof ECKey ecKey) {
+            // ES256 is defined for P-256 only, larger curves would silently switch to ES384/ES512
+            int fieldSize = ecKey.getParams().getCurve().getField().getFieldSize();
+            if (fieldSize != 256) {
+                throw new IllegalArgumentException("Unsupported EC key size: " + fieldSize + " bits. ES256 requires a P-256 key");
+            }
+        } else if (key instanceof EdECKey edKey) {
+            String curve = edKey.getParams().getName();
+            if (!"Ed25519".equalsIgnoreCase(curve)) {
+                throw new IllegalArgumentException("Unsupported EdDSA curve: " + curve + ". Ed25519 is required");
+            }
         }
-        // Add validation for EC keys if needed
     }
 }
@@ -0,0 +1,111 @@
+package com.manish.app.security;
+
+import com.manish.app.common.timing.ServerTiming;
+import com.manish.app.exception.BusinessException;
+import com.manish.app.exception.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Dedicated CPU pool for password hashing (BCrypt checks and encodes), kept apart from the
+ * servlet container threads so a login burst cannot starve token-authenticated API calls.
+ * <p>
+ * The pool is sized to the cores and fronted by a bounded queue: once both are full, new work is
+ * rejected immediately with {@link ErrorCode#AUTHENTICATION_BUSY} instead of piling up latency.
+ * Only the hashing itself belongs on the pool; lookups and writes stay on the calling thread or
+ * run after the hash, and the returned futures complete on the application task executor, so
+ * stages chained to them never hold a hashing thread. Request handlers return those futures and
+ * release the servlet thread while the hash is computed.
+ */
+@Slf4j
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final Executor completionExecutor;
+
+    public PasswordHashingExecutor(
+        @Value("${app.security.password-hashing.pool-size:0}") final int poolSize,
+        @Value("${app.security.password-hashing.queue-capacity:64}") final int queueCapacity,
+        final MeterRegistry meterRegistry,
+        @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+        final Executor completionExecutor) {
+        this.completionExecutor = completionExecutor;
+        final int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new HashingThreadFactory(),
+            new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, this.executor, "password.hashing", List.of());
+        log.info("Password hashing pool started with {} threads and a queue of {}", threads, queueCapacity);
+    }
+
+    /**
+     * Runs the task on the hashing pool, within the calling request's {@link ServerTiming}. The
+     * returned future completes on the application task executor, with the task's own exception
+     * if it failed.
+     *
+     * @throws BusinessException with {@link ErrorCode#AUTHENTICATION_BUSY} when the pool is saturated
+     */
+    public <T> CompletableFuture<T> submit(final Supplier<T> task) {
+        final CompletableFuture<T> hashed;
+        try {
+            hashed = CompletableFuture.supplyAsync(ServerTiming.propagate(task), this.executor);
+        } catch (final RejectedExecutionException e) {
+            log.warn("Password hashing pool saturated, rejecting request");
+            throw new BusinessException(ErrorCode.AUTHENTICATION_BUSY);
+        }
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        hashed.whenComplete((value, failure) -> this.completionExecutor.execute(() -> {
+            if (failure == null) {
+                result.complete(value);
+            } else {
+                result.completeExceptionally(failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause()
+                    : failure);
+            }
+        }));
+        return result;
+    }
+
+    public CompletableFuture<Void> run(final Runnable task) {
+        return submit(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+
+    private static final class HashingThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
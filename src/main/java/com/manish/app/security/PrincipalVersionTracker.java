@@ -0,0 +1,112 @@
+package com.manish.app.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.manish.app.common.id.BinaryUuid;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+
+/**
+ * Knows the latest token version of accounts whose security state changed recently, so that a
+ * stateless principal carrying an older version is re-checked against the database.
+ * <p>
+ * Every version change is published to {@code TOKEN_VERSION_CHANGES} in the transaction of the
+ * change. In stateless principal mode each node polls that table, so a change made on any node,
+ * or before this node started, is known everywhere within one poll interval; that interval is how
+ * long an old token may still be accepted on another node. Changes only need to outlive the
+ * access tokens issued before them, older ones are deleted.
+ */
+@Slf4j
+@Component
+public class PrincipalVersionTracker {
+
+    private static final String PUBLISH = """
+        insert into TOKEN_VERSION_CHANGES (USER_ID, TOKEN_VERSION, CHANGED_AT) values (?, ?, current_timestamp(6))""";
+    private static final String ALL_CHANGES = "select USER_ID, TOKEN_VERSION, CHANGED_AT from TOKEN_VERSION_CHANGES";
+    private static final String CHANGES_SINCE = ALL_CHANGES + " where CHANGED_AT > ?";
+    private static final String DELETE_BEFORE = "delete from TOKEN_VERSION_CHANGES where CHANGED_AT < ?";
+    // changes become visible on commit, so a longer transaction may commit a change older than one
+    // already read; re-reading this far back catches it, re-recording a version is harmless
+    private static final long COMMIT_MARGIN_MILLIS = 60_000;
+
+    private final Cache<String, Integer> versions;
+    private final JdbcTemplate jdbcTemplate;
+    private final long accessTokenExpiration;
+    private final boolean statelessPrincipal;
+    // CHANGED_AT of the newest change read, in database time; null until one was read
+    private Timestamp lastChangeAt;
+
+    public PrincipalVersionTracker(
+        final JdbcTemplate jdbcTemplate,
+        @Value("${app.security.jwt.access-token-expiration}") final long accessTokenExpiration,
+        @Value("${app.security.jwt.stateless-principal.enabled:false}") final boolean statelessPrincipal) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.accessTokenExpiration = accessTokenExpiration;
+        this.statelessPrincipal = statelessPrincipal;
+        this.versions = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(accessTokenExpiration))
+            .build();
+    }
+
+    /**
+     * Makes a version change visible to all nodes once the surrounding transaction commits.
+     */
+    public void publishVersion(final String userId, final int tokenVersion) {
+        this.jdbcTemplate.update(PUBLISH, BinaryUuid.toBytes(userId), tokenVersion);
+    }
+
+    /**
+     * Records a version change on this node without waiting for the next poll.
+     */
+    public void recordVersion(final String userId, final int tokenVersion) {
+        this.versions.asMap().merge(userId, tokenVersion, Math::max);
+    }
+
+    public boolean isStale(final String userId, final int tokenVersion) {
+        final Integer latest = this.versions.getIfPresent(userId);
+        return latest != null && latest > tokenVersion;
+    }
+
+    /**
+     * Reads the changes published before this node started, so that it does not accept tokens
+     * another node has already revoked.
+     */
+    @PostConstruct
+    public void load() {
+        poll();
+    }
+
+    /**
+     * Reads the changes published since the last poll, all of them on the first poll. Only
+     * needed while principals are rebuilt from tokens, otherwise every request loads the user.
+     */
+    @Scheduled(fixedDelayString = "${app.security.jwt.stateless-principal.version-poll-interval:5000}")
+    public void poll() {
+        if (!this.statelessPrincipal) {
+            return;
+        }
+        final Object[] parameters = this.lastChangeAt == null ? new Object[0]
+            : new Object[]{new Timestamp(this.lastChangeAt.getTime() - COMMIT_MARGIN_MILLIS)};
+        this.jdbcTemplate.query(this.lastChangeAt == null ? ALL_CHANGES : CHANGES_SINCE, rs -> {
+            recordVersion(BinaryUuid.toString(rs.getBytes(1)), rs.getInt(2));
+            final Timestamp changedAt = rs.getTimestamp(3);
+            if (this.lastChangeAt == null || changedAt.after(this.lastChangeAt)) {
+                this.lastChangeAt = changedAt;
+            }
+        }, parameters);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.jwt.stateless-principal.version-cleanup-interval:3600000}")
+    public void removeExpired() {
+        final int deleted = this.jdbcTemplate.update(DELETE_BEFORE,
+            new Timestamp(System.currentTimeMillis() - this.accessTokenExpiration - COMMIT_MARGIN_MILLIS));
+        log.debug("Removed {} expired token version changes", deleted);
+    }
+}
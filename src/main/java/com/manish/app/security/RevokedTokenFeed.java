@@ -0,0 +1,97 @@
+package com.manish.app.security;
+
+import com.manish.app.common.id.BinaryUuid;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+
+/**
+ * Shares access token revocations between nodes through {@code REVOKED_ACCESS_TOKENS}.
+ * <p>
+ * A revocation takes effect at once in this node's {@link TokenDenylist}, other nodes pick it up
+ * with their next poll; the poll interval is how long a revoked token may still be accepted
+ * elsewhere. At startup all unexpired revocations are read, so a node that missed some while down
+ * or has lost its denylist file catches up.
+ */
+@Slf4j
+@Component
+public class RevokedTokenFeed {
+
+    private static final String PUBLISH = """
+        insert into REVOKED_ACCESS_TOKENS (TOKEN_ID, EXPIRES_AT, REVOKED_AT) values (?, ?, current_timestamp(6))""";
+    private static final String ALL_REVOCATIONS =
+        "select TOKEN_ID, EXPIRES_AT, REVOKED_AT from REVOKED_ACCESS_TOKENS where EXPIRES_AT > ?";
+    private static final String REVOCATIONS_SINCE = ALL_REVOCATIONS + " and REVOKED_AT > ?";
+    private static final String DELETE_EXPIRED = "delete from REVOKED_ACCESS_TOKENS where EXPIRES_AT <= ?";
+    // an insert is visible on commit, possibly after a later one was already read; re-reading this
+    // far back catches it, revoking a token twice is harmless
+    private static final long COMMIT_MARGIN_MILLIS = 60_000;
+
+    private final TokenDenylist tokenDenylist;
+    private final JdbcTemplate jdbcTemplate;
+    // REVOKED_AT of the newest revocation read, in database time; null until one was read
+    private Timestamp lastRevokedAt;
+
+    public RevokedTokenFeed(final TokenDenylist tokenDenylist, final JdbcTemplate jdbcTemplate) {
+        this.tokenDenylist = tokenDenylist;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Revokes the token on this node and publishes the revocation to the others. Ids that are not
+     * UUIDs were not issued by this service and are ignored.
+     */
+    public void revoke(final String tokenId, final long expiresAtMillis) {
+        final byte[] id;
+        try {
+            id = BinaryUuid.toBytes(tokenId);
+        } catch (final IllegalArgumentException e) {
+            return;
+        }
+        if (this.tokenDenylist.isRevoked(tokenId)) {
+            return;
+        }
+        this.tokenDenylist.revoke(tokenId, expiresAtMillis);
+        try {
+            this.jdbcTemplate.update(PUBLISH, id, new Timestamp(expiresAtMillis));
+        } catch (final DataAccessException e) {
+            // the token stays revoked on this node only
+            log.warn("Failed to publish revoked token {}: {}", tokenId, e.getMessage());
+        }
+    }
+
+    @PostConstruct
+    public void load() {
+        poll();
+        log.info("Token denylist holds {} revoked tokens after reading the shared revocations",
+            this.tokenDenylist.size());
+    }
+
+    /**
+     * Applies the revocations published since the last poll, all unexpired ones on the first.
+     */
+    @Scheduled(fixedDelayString = "${app.security.jwt.denylist.poll-interval:5000}")
+    public void poll() {
+        final Timestamp now = new Timestamp(System.currentTimeMillis());
+        final Object[] parameters = this.lastRevokedAt == null ? new Object[]{now}
+            : new Object[]{now, new Timestamp(this.lastRevokedAt.getTime() - COMMIT_MARGIN_MILLIS)};
+        this.jdbcTemplate.query(this.lastRevokedAt == null ? ALL_REVOCATIONS : REVOCATIONS_SINCE, rs -> {
+            this.tokenDenylist.revoke(BinaryUuid.toString(rs.getBytes(1)), rs.getTimestamp(2).getTime());
+            final Timestamp revokedAt = rs.getTimestamp(3);
+            if (this.lastRevokedAt == null || revokedAt.after(this.lastRevokedAt)) {
+                this.lastRevokedAt = revokedAt;
+            }
+        }, parameters);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.jwt.denylist.cleanup-interval:60000}")
+    public void removeExpired() {
+        final int deleted = this.jdbcTemplate.update(DELETE_EXPIRED, new Timestamp(System.currentTimeMillis()));
+        log.debug("Removed {} expired shared token revocations", deleted);
+    }
+}
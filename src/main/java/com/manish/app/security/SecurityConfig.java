@@ -1,5 +1,6 @@
 package com.manish.app.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -20,6 +21,7 @@ public class SecurityConfig {
         "/api/v1/auth/login",
         "/api/v1/auth/register",
         "/api/v1/auth/refresh",
+        "/api/v1/auth/logout",
         "/v2/api-docs",
         "/v3/api-docs",
         "/v3/api-docs/**",
@@ -30,7 +32,9 @@ public class SecurityConfig {
         "/swagger-ui/**",
         "/webjars/**",
         "/swagger-ui.html",
-        "/actuator/**"
+        "/actuator/health",
+        "/actuator/health/**",
+        "/actuator/info"
     };
     // @formatter:on
     private final JwtFilter jwtFilter;
@@ -43,8 +47,14 @@ public class SecurityConfig {
     public SecurityFilterChain filterChain(final HttpSecurity http) throws Exception {
         return http.csrf(AbstractHttpConfigurer::disable).authorizeHttpRequests(
                 auth ->
-                    auth.requestMatchers(PUBLIC_URLS)
+                    // async results are dispatched back after the original request was authorized
+                    auth.dispatcherTypeMatchers(DispatcherType.ASYNC)
                         .permitAll()
+                        .requestMatchers(PUBLIC_URLS)
+                        .permitAll()
+                        // metrics, caches and the scrape endpoint reveal internals, admins only
+                        .requestMatchers("/actuator/**")
+                        .hasRole("ADMIN")
                         .anyRequest()
                         .authenticated())
             .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
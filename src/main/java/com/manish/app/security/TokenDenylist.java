@@ -0,0 +1,286 @@
+package com.manish.app.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Revoked access tokens, identified by their {@code jti}, kept until the token expires.
+ * <p>
+ * {@link #isRevoked(String)} runs on every authenticated request. While nothing is revoked it is
+ * a single field read; otherwise a bloom filter answers almost every lookup for a valid token
+ * with a few bit probes, and only filter hits consult the exact map.
+ * <p>
+ * Revocations are also written to a memory-mapped file of fixed-size records
+ * ({@code exp} millis, jti as two longs), so they survive a restart. The file is compacted in
+ * place when expired records are dropped; records keep their order and the count is written
+ * last, so a crash during compaction leaves at worst duplicate or expired records behind.
+ * <p>
+ * The denylist only covers this node; revocations reach the other nodes through
+ * {@link RevokedTokenFeed}.
+ */
+@Slf4j
+@Component
+public class TokenDenylist {
+
+    private static final int MAGIC = 0x4A444C31; // "JDL1"
+    private static final int HEADER_BYTES = 16;
+    private static final int COUNT_OFFSET = 8;
+    private static final int RECORD_BYTES = 24;
+    private static final int INITIAL_RECORDS = 4096;
+    private static final int HASH_FUNCTIONS = 7;
+
+    private final Path file;
+    private final int expectedEntries;
+
+    private final Map<UUID, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+    // writers only: revocations, compaction and filter rebuilds; lookups never lock
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int recordCount;
+
+    public TokenDenylist(
+        @Value("${app.security.jwt.denylist.file:./data/jwt-denylist.bin}") final String file,
+        @Value("${app.security.jwt.denylist.expected-entries:100000}") final int expectedEntries) {
+        this.file = Path.of(file);
+        this.expectedEntries = expectedEntries;
+        this.filter = new BloomFilter(expectedEntries);
+    }
+
+    @PostConstruct
+    public void init() {
+        try {
+            if (this.file.getParent() != null) {
+                Files.createDirectories(this.file.getParent());
+            }
+            this.channel = FileChannel.open(this.file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+            final boolean fresh = this.channel.size() < HEADER_BYTES;
+            map(Math.max(this.channel.size(), HEADER_BYTES + (long) INITIAL_RECORDS * RECORD_BYTES));
+            if (fresh || this.buffer.getInt(0) != MAGIC) {
+                if (!fresh) {
+                    log.warn("Ignoring unrecognized token denylist file {}", this.file);
+                }
+                this.buffer.putInt(0, MAGIC);
+                this.buffer.putLong(COUNT_OFFSET, 0);
+            }
+            load();
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Failed to open token denylist " + this.file, e);
+        }
+    }
+
+    private void load() {
+        final long now = System.currentTimeMillis();
+        final long storedRecords = this.buffer.getLong(COUNT_OFFSET);
+        final int capacity = (this.buffer.capacity() - HEADER_BYTES) / RECORD_BYTES;
+        this.recordCount = (int) Math.min(Math.max(storedRecords, 0), capacity);
+        for (int i = 0; i < this.recordCount; i++) {
+            final int offset = HEADER_BYTES + i * RECORD_BYTES;
+            final long expiresAt = this.buffer.getLong(offset);
+            if (expiresAt > now) {
+                this.revoked.put(new UUID(this.buffer.getLong(offset + 8), this.buffer.getLong(offset + 16)),
+                    expiresAt);
+            }
+        }
+        compact();
+        log.info("Loaded {} revoked tokens from {}", this.revoked.size(), this.file);
+    }
+
+    /**
+     * @return {@code true} if the token with this id was revoked and has not expired yet;
+     * tokens without an id are never revoked individually
+     */
+    public boolean isRevoked(final String tokenId) {
+        if (tokenId == null || this.revoked.isEmpty() || !this.filter.mightContain(tokenId)) {
+            return false;
+        }
+        final UUID id = parse(tokenId);
+        if (id == null) {
+            return false;
+        }
+        final Long expiresAt = this.revoked.get(id);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    /**
+     * Revokes the token until its expiry. Ids that are not UUIDs were not issued by this service
+     * and are ignored.
+     */
+    public void revoke(final String tokenId, final long expiresAtMillis) {
+        final UUID id = parse(tokenId);
+        if (id == null || expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        this.writeLock.lock();
+        try {
+            if (this.revoked.putIfAbsent(id, expiresAtMillis) != null) {
+                return;
+            }
+            this.filter.put(id.toString());
+            append(id, expiresAtMillis);
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    public int size() {
+        return this.revoked.size();
+    }
+
+    /**
+     * Drops expired entries, compacts the file and rebuilds the bloom filter from the live
+     * entries, since entries cannot be removed from a bloom filter.
+     */
+    @Scheduled(fixedDelayString = "${app.security.jwt.denylist.cleanup-interval:60000}")
+    public void removeExpired() {
+        final long now = System.currentTimeMillis();
+        if (!this.revoked.values().removeIf(expiresAt -> expiresAt <= now)) {
+            return;
+        }
+        this.writeLock.lock();
+        try {
+            compact();
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    private void compact() {
+        final long now = System.currentTimeMillis();
+        int live = 0;
+        for (int i = 0; i < this.recordCount; i++) {
+            final int from = HEADER_BYTES + i * RECORD_BYTES;
+            final long expiresAt = this.buffer.getLong(from);
+            final UUID id = new UUID(this.buffer.getLong(from + 8), this.buffer.getLong(from + 16));
+            if (expiresAt <= now || !this.revoked.containsKey(id)) {
+                continue;
+            }
+            if (live != i) {
+                writeRecord(live, id, expiresAt);
+            }
+            live++;
+        }
+        this.recordCount = live;
+        this.buffer.putLong(COUNT_OFFSET, live);
+        final BloomFilter rebuilt = new BloomFilter(Math.max(this.expectedEntries, this.revoked.size()));
+        this.revoked.keySet().forEach(id -> rebuilt.put(id.toString()));
+        this.filter = rebuilt;
+    }
+
+    private void append(final UUID id, final long expiresAtMillis) {
+        try {
+            final long required = HEADER_BYTES + (long) (this.recordCount + 1) * RECORD_BYTES;
+            if (required > this.buffer.capacity()) {
+                this.buffer.force();
+                map(Math.max(required, 2L * this.buffer.capacity()));
+            }
+            writeRecord(this.recordCount, id, expiresAtMillis);
+            this.recordCount++;
+            this.buffer.putLong(COUNT_OFFSET, this.recordCount);
+        } catch (final IOException e) {
+            // the revocation is still enforced by this node, it is only lost on restart
+            log.error("Failed to persist revoked token {}", id, e);
+        }
+    }
+
+    private void writeRecord(final int index, final UUID id, final long expiresAtMillis) {
+        final int offset = HEADER_BYTES + index * RECORD_BYTES;
+        this.buffer.putLong(offset + 8, id.getMostSignificantBits());
+        this.buffer.putLong(offset + 16, id.getLeastSignificantBits());
+        this.buffer.putLong(offset, expiresAtMillis);
+    }
+
+    private void map(final long size) throws IOException {
+        this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        this.writeLock.lock();
+        try {
+            if (this.buffer != null) {
+                this.buffer.force();
+            }
+            if (this.channel != null) {
+                this.channel.close();
+            }
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    private static UUID parse(final String tokenId) {
+        try {
+            return UUID.fromString(tokenId);
+        } catch (final IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Bloom filter over the token id string with about 1% false positives at the expected size,
+     * bit positions derived by double hashing from the string hash.
+     */
+    private static final class BloomFilter {
+
+        private final AtomicLongArray bits;
+        private final long bitCount;
+
+        private BloomFilter(final int expectedEntries) {
+            // m = -n ln(p) / ln(2)^2 with p = 0.01, about 9.6 bits per entry
+            final long wanted = (long) Math.ceil(expectedEntries * 9.6);
+            final int words = (int) Math.max(1, (wanted + 63) / 64);
+            this.bits = new AtomicLongArray(words);
+            this.bitCount = words * 64L;
+        }
+
+        private void put(final String key) {
+            final long h1 = mix(key.hashCode());
+            final long h2 = mix(h1) | 1;
+            for (int i = 0; i < HASH_FUNCTIONS; i++) {
+                final long bit = Math.floorMod(h1 + i * h2, this.bitCount);
+                final long mask = 1L << bit;
+                this.bits.getAndAccumulate((int) (bit >>> 6), mask, (word, m) -> word | m);
+            }
+        }
+
+        private boolean mightContain(final String key) {
+            final long h1 = mix(key.hashCode());
+            final long h2 = mix(h1) | 1;
+            for (int i = 0; i < HASH_FUNCTIONS; i++) {
+                final long bit = Math.floorMod(h1 + i * h2, this.bitCount);
+                if ((this.bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // splitmix64 finalizer, spreads the 32 bit string hash over 64 bits
+        private static long mix(final long value) {
+            long z = value + 0x9E3779B97F4A7C15L;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.manish.app.security;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Immutable principal reconstructed from the claims of a verified access token, used instead of
+ * loading the user from the database when stateless principals are enabled.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode(of = "id")
+public final class TokenPrincipal implements UserPrincipal {
+
+    private final String id;
+    private final String username;
+    private final List<GrantedAuthority> authorities;
+    private final boolean enabled;
+    private final boolean locked;
+    private final boolean credentialExpired;
+    private final int tokenVersion;
+
+    public TokenPrincipal(final String id, final String username,
+        final List<GrantedAuthority> authorities, final boolean enabled, final boolean locked,
+        final boolean credentialExpired, final int tokenVersion) {
+        this.id = id;
+        this.username = username;
+        this.authorities = List.copyOf(authorities);
+        this.enabled = enabled;
+        this.locked = locked;
+        this.credentialExpired = credentialExpired;
+        this.tokenVersion = tokenVersion;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return !this.locked;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return !this.credentialExpired;
+    }
+}
@@ -0,0 +1,18 @@
+package com.manish.app.security;
+
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Authenticated principal as seen by the rest of the application, either the persistent
+ * {@link com.manish.app.user.entity.User} or a {@link TokenPrincipal} rebuilt from a verified token.
+ */
+public interface UserPrincipal extends UserDetails {
+
+    String getId();
+
+    /**
+     * Version of the account's security state, bumped whenever previously issued tokens must no
+     * longer be trusted on their own (password change, deactivation, deletion).
+     */
+    int getTokenVersion();
+}
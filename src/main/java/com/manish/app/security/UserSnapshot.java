@@ -0,0 +1,46 @@
+package com.manish.app.security;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Immutable copy of a user's security state with its authorities resolved, the form in which user
+ * details are cached and shared between request threads. It carries no password hash: passwords
+ * are only checked at login, against the user loaded without the cache.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode(of = "id")
+public final class UserSnapshot implements UserPrincipal {
+
+    private final String id;
+    private final String username;
+    private final List<GrantedAuthority> authorities;
+    private final boolean enabled;
+    private final boolean accountNonLocked;
+    private final boolean credentialsNonExpired;
+    private final int tokenVersion;
+
+    private UserSnapshot(final UserPrincipal user) {
+        this.id = user.getId();
+        this.username = user.getUsername();
+        this.authorities = List.copyOf(user.getAuthorities());
+        this.enabled = user.isEnabled();
+        this.accountNonLocked = user.isAccountNonLocked();
+        this.credentialsNonExpired = user.isCredentialsNonExpired();
+        this.tokenVersion = user.getTokenVersion();
+    }
+
+    public static UserSnapshot of(final UserPrincipal user) {
+        return new UserSnapshot(user);
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+}
@@ -0,0 +1,120 @@
+package com.manish.app.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of already verified JWT claims, keyed by the SHA-256 digest of the compact token.
+ * Entries expire together with the token they were extracted from, so a token is verified at most
+ * once per node for its whole lifetime and an expired token is never served from the cache.
+ */
+@Component
+public class VerifiedClaimsCache {
+
+    private static final String CACHE_NAME = "jwt.verified-claims";
+
+    private final Cache<String, Claims> cache;
+
+    public VerifiedClaimsCache(
+        @Value("${app.security.jwt.claims-cache.maximum-size:100000}") final long maximumSize,
+        final MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(new TokenExpiry())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the verified claims of the token, running the verifier only on a cache miss.
+     * Verification is done outside of any cache lock so a slow signature check never blocks
+     * lookups of unrelated tokens; failures propagate and are never cached.
+     */
+    public Claims get(final String token, final Function<String, Claims> verifier) {
+        final String key = digest(token);
+        final Claims cached = this.cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        final Claims claims = verifier.apply(token);
+        if (claims.getExpiration() != null) {
+            this.cache.put(key, claims);
+        }
+        return claims;
+    }
+
+    public void invalidateAll() {
+        this.cache.invalidateAll();
+    }
+
+    /**
+     * Claims verified with a key that has since been removed from the key ring must be verified
+     * again, which then fails.
+     */
+    @EventListener
+    public void onKeyRingRotated(final KeyRingRotatedEvent event) {
+        if (!event.removedKeyIds().isEmpty()) {
+            invalidateAll();
+        }
+    }
+
+    public CacheStats stats() {
+        return this.cache.stats();
+    }
+
+    public long estimatedSize() {
+        return this.cache.estimatedSize();
+    }
+
+    private static String digest(final String token) {
+        try {
+            final byte[] hash = MessageDigest.getInstance("SHA-256")
+                .digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Keeps every entry exactly until the {@code exp} claim of its token.
+     */
+    private static final class TokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(final String key, final Claims claims, final long currentTime) {
+            final Date expiration = claims.getExpiration();
+            final long remainingMillis = expiration.getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(final String key, final Claims claims, final long currentTime,
+            final long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(final String key, final Claims claims, final long currentTime,
+            final long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.manish.app.user.backfill;
+
+import com.manish.app.common.id.BinaryUuid;
+import com.manish.app.scheduling.JobLock;
+import com.manish.app.user.entity.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills {@code EMAIL_NORMALIZED} of users written before the column existed, online and in
+ * batches.
+ * <p>
+ * One node at a time holds the {@value #LOCK_NAME} lease and walks the unfilled rows by keyset
+ * on the primary key, one short transaction per batch with a pause in between, so it never
+ * holds long locks next to regular traffic. Normalization is done in Java with
+ * {@link User#normalizeEmail}, exactly as the entity does it, rather than with SQL
+ * {@code LOWER()} whose result depends on the collation. Until no unfilled row is left,
+ * {@link #isComplete()} is {@code false} and lookups fall back to the case-insensitive scan.
+ */
+@Slf4j
+@Component
+public class EmailNormalizationBackfill {
+
+    static final String LOCK_NAME = "email-normalization-backfill";
+
+    private static final String SELECT_UNFILLED = """
+        select ID, EMAIL from USERS
+        where EMAIL_NORMALIZED is null and ID > ?
+        order by ID
+        limit ?
+        """;
+    private static final String FILL = "update USERS set EMAIL_NORMALIZED = ? where ID = ? and EMAIL = ? and EMAIL_NORMALIZED is null";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JobLock jobLock;
+    private final int batchSize;
+    private final long pauseMillis;
+    private final Duration leaseTime;
+    private volatile boolean complete;
+
+    public EmailNormalizationBackfill(
+        final JdbcTemplate jdbcTemplate,
+        final PlatformTransactionManager transactionManager,
+        final JobLock jobLock,
+        @Value("${app.users.email-backfill.batch-size:1000}") final int batchSize,
+        @Value("${app.users.email-backfill.pause:50}") final long pauseMillis,
+        @Value("${app.users.email-backfill.lease-time:30m}") final Duration leaseTime) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jobLock = jobLock;
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+        this.leaseTime = leaseTime;
+    }
+
+    /**
+     * Whether every user has its normalized email, after which lookups use the unique index only.
+     */
+    public boolean isComplete() {
+        return this.complete;
+    }
+
+    @Scheduled(fixedDelayString = "${app.users.email-backfill.interval:60000}")
+    public void run() {
+        if (this.complete) {
+            return;
+        }
+        if (!hasUnfilledRows()) {
+            log.info("All users have a normalized email, case-insensitive lookup fallback disabled");
+            this.complete = true;
+            return;
+        }
+        this.jobLock.runExclusively(LOCK_NAME, this.leaseTime, this::backfill);
+    }
+
+    private boolean hasUnfilledRows() {
+        return !this.jdbcTemplate.queryForList("select ID from USERS where EMAIL_NORMALIZED is null limit 1",
+            String.class).isEmpty();
+    }
+
+    private void backfill() {
+        final long start = System.nanoTime();
+        long filled = 0;
+        // no id is all zeros, their version bits are set
+        byte[] lastId = new byte[BinaryUuid.BYTES];
+        while (!Thread.currentThread().isInterrupted()) {
+            final List<Object[]> rows = new ArrayList<>(this.batchSize);
+            this.jdbcTemplate.query(SELECT_UNFILLED, rs -> {
+                final String email = rs.getString(2);
+                rows.add(new Object[]{User.normalizeEmail(email), rs.getBytes(1), email});
+            }, lastId, this.batchSize);
+            if (rows.isEmpty()) {
+                break;
+            }
+            lastId = (byte[]) rows.get(rows.size() - 1)[1];
+            filled += fill(rows);
+            pause();
+        }
+        log.info("Backfilled normalized email of {} users in {} ms", filled,
+            (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Fills one batch; if two emails differ only in case the batch is retried row by row and the
+     * conflicting rows are left unfilled for an operator to resolve.
+     */
+    private long fill(final List<Object[]> rows) {
+        try {
+            return this.transactionTemplate.execute(status -> sum(this.jdbcTemplate.batchUpdate(FILL, rows)));
+        } catch (final DataIntegrityViolationException e) {
+            log.debug("Normalized email batch conflicted, retrying {} rows one by one", rows.size());
+        }
+        long filled = 0;
+        for (final Object[] row : rows) {
+            try {
+                filled += this.jdbcTemplate.update(FILL, row);
+            } catch (final DataIntegrityViolationException e) {
+                log.warn("Cannot normalize email of user {}, another user has the same email ignoring case",
+                    BinaryUuid.toString((byte[]) row[1]));
+            }
+        }
+        return filled;
+    }
+
+    private static long sum(final int[] counts) {
+        long sum = 0;
+        for (final int count : counts) {
+            // drivers may report a batched statement as SUCCESS_NO_INFO (-2)
+            sum += Math.max(count, 0);
+        }
+        return sum;
+    }
+
+    private void pause() {
+        if (this.pauseMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(this.pauseMillis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
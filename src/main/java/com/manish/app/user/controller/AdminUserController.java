@@ -0,0 +1,106 @@
+package com.manish.app.user.controller;
+
+import com.manish.app.config.ApiConstants;
+import com.manish.app.user.export.UserExportService;
+import com.manish.app.user.importer.ImportFormat;
+import com.manish.app.user.importer.UserImportService;
+import com.manish.app.user.search.UserSearchCriteria;
+import com.manish.app.user.search.UserSearchPage;
+import com.manish.app.user.search.UserSearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+
+@Slf4j
+@RestController
+@RequestMapping(ApiConstants.ADMIN_BASE)
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Admin", description = "Administration API for bulk user management")
+public class AdminUserController {
+
+    private final UserImportService userImportService;
+    private final UserExportService userExportService;
+    private final UserSearchService userSearchService;
+
+    @Operation(summary = "Search users",
+        description = "Lists users newest first matching all given filters, paged by the opaque cursor of the "
+            + "previous page")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Page of matching users"),
+        @ApiResponse(responseCode = "400", description = ApiConstants.ERROR_INVALID_REQUEST),
+        @ApiResponse(responseCode = "401", description = ApiConstants.ERROR_UNAUTHORIZED),
+        @ApiResponse(responseCode = "403", description = ApiConstants.ERROR_FORBIDDEN_ACCESS)
+    })
+    @GetMapping(ApiConstants.ADMIN_USERS)
+    public UserSearchPage searchUsers(
+        @RequestParam(required = false) final Boolean enabled,
+        @RequestParam(required = false) final Boolean locked,
+        @RequestParam(required = false) final Boolean markedForDeletion,
+        @RequestParam(required = false) final String emailPrefix,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime createdFrom,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime createdTo,
+        @RequestParam(required = false) final String cursor,
+        @RequestParam(required = false) final Integer size
+    ) {
+        final UserSearchCriteria criteria = new UserSearchCriteria(enabled, locked, markedForDeletion, emailPrefix,
+            createdFrom, createdTo);
+        return this.userSearchService.search(criteria, cursor, size);
+    }
+
+    @Operation(summary = "Import users in bulk",
+        description = "Streams CSV or NDJSON registration rows in, and streams one NDJSON line per rejected row "
+            + "followed by a summary line out")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Import processed, see the streamed rows and summary"),
+        @ApiResponse(responseCode = "401", description = ApiConstants.ERROR_UNAUTHORIZED),
+        @ApiResponse(responseCode = "403", description = ApiConstants.ERROR_FORBIDDEN_ACCESS)
+    })
+    @PostMapping(value = ApiConstants.ADMIN_USERS_IMPORT,
+        consumes = {ImportFormat.TEXT_CSV, ImportFormat.APPLICATION_NDJSON},
+        produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importUsers(final HttpServletRequest request) {
+        final ImportFormat format = ImportFormat.fromContentType(request.getHeader(HttpHeaders.CONTENT_TYPE));
+        log.info("Starting {} user import", format);
+        // the body is read and the result written while the import runs, neither is buffered
+        final StreamingResponseBody body = output ->
+            this.userImportService.importUsers(request.getInputStream(), format, output);
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
+    }
+
+    @Operation(summary = "Export all users",
+        description = "Streams every user without password hash as one NDJSON line per user")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Users streamed"),
+        @ApiResponse(responseCode = "401", description = ApiConstants.ERROR_UNAUTHORIZED),
+        @ApiResponse(responseCode = "403", description = ApiConstants.ERROR_FORBIDDEN_ACCESS)
+    })
+    @GetMapping(value = ApiConstants.ADMIN_USERS_EXPORT, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        log.info("Starting user export");
+        final StreamingResponseBody body = this.userExportService::exportUsers;
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=users.ndjson")
+            .body(body);
+    }
+}
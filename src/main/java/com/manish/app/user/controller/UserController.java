@@ -1,7 +1,7 @@
 package com.manish.app.user.controller;
 
 import com.manish.app.config.ApiConstants;
-import com.manish.app.user.entity.User;
+import com.manish.app.security.UserPrincipal;
 import com.manish.app.user.service.UserService;
 import com.manish.app.user.request.ChangePasswordRequest;
 import com.manish.app.user.request.ProfileUpdateRequest;
@@ -22,6 +22,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+
+
 @Slf4j
 @RestController
 @RequestMapping(ApiConstants.USERS_BASE)
@@ -45,7 +48,7 @@ public class UserController {
         @RequestBody
         @Valid
         final ProfileUpdateRequest request,
-        final @AuthenticationPrincipal User user
+        final @AuthenticationPrincipal UserPrincipal user
     ) {
         log.info("Updating profile for user ID: {}", user.getId());
         this.userService.updateProfileInfo(request, user.getId());
@@ -59,15 +62,16 @@ public class UserController {
         @ApiResponse(responseCode = "400", description = ApiConstants.ERROR_INVALID_REQUEST),
         @ApiResponse(responseCode = "401", description = ApiConstants.ERROR_UNAUTHORIZED),
         @ApiResponse(responseCode = "404", description = ApiConstants.ERROR_USER_NOT_FOUND),
-        @ApiResponse(responseCode = "403", description = ApiConstants.ERROR_FORBIDDEN_ACCESS)
+        @ApiResponse(responseCode = "403", description = ApiConstants.ERROR_FORBIDDEN_ACCESS),
+        @ApiResponse(responseCode = "503", description = ApiConstants.ERROR_SERVICE_BUSY)
     })
     @PostMapping(ApiConstants.USERS_ME_PASSWORD)
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void changePassword(@Valid @RequestBody ChangePasswordRequest request,
-        @AuthenticationPrincipal User user) {
+    public CompletableFuture<Void> changePassword(@Valid @RequestBody ChangePasswordRequest request,
+        @AuthenticationPrincipal UserPrincipal user) {
         log.info("Changing password for user ID: {}", user.getId());
-        userService.changePassword(request, user.getId());
-        log.debug("Password changed successfully for user ID: {}", user.getId());
+        return userService.changePassword(request, user.getId())
+            .thenRun(() -> log.debug("Password changed successfully for user ID: {}", user.getId()));
     }
 
     @Operation(summary = "Deactivate authenticated user's account", description = "Deactivates the authenticated user's account")
@@ -78,7 +82,7 @@ public class UserController {
     })
     @PatchMapping(ApiConstants.USERS_ME_DEACTIVATE)
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void deactivateAccount(@AuthenticationPrincipal User user) {
+    public void deactivateAccount(@AuthenticationPrincipal UserPrincipal user) {
         log.info("Deactivating account for user ID: {}", user.getId());
         userService.deactivateAccount(user.getId());
         log.debug("Account deactivated successfully for user ID: {}", user.getId());
@@ -92,7 +96,7 @@ public class UserController {
     })
     @PatchMapping(ApiConstants.USERS_ME_REACTIVATE)
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void reactivateAccount(@AuthenticationPrincipal User user) {
+    public void reactivateAccount(@AuthenticationPrincipal UserPrincipal user) {
         log.info("Reactivating account for user ID: {}", user.getId());
         userService.reactivateAccount(user.getId());
         log.debug("Account reactivated successfully for user ID: {}", user.getId());
@@ -106,7 +110,7 @@ public class UserController {
     })
     @DeleteMapping(ApiConstants.USERS_ME_DELETE)
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void deleteAccount(@AuthenticationPrincipal User user) {
+    public void deleteAccount(@AuthenticationPrincipal UserPrincipal user) {
         log.info("Deleting account for user ID: {}", user.getId());
         userService.deleteAccount(user.getId());
         log.debug("Account deleted successfully for user ID: {}", user.getId());
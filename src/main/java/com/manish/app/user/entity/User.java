@@ -1,36 +1,43 @@
 package com.manish.app.user.entity;
 
+import com.manish.app.common.id.BinaryUuid;
+import com.manish.app.common.id.BinaryUuidJavaType;
+import com.manish.app.common.id.TimeOrderedId;
 import com.manish.app.role.Role;
+import com.manish.app.role.RoleRegistry;
+import com.manish.app.security.UserPrincipal;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.JavaType;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.util.CollectionUtils;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.HashSet;
-import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 
 @Entity
@@ -39,12 +46,26 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "USERS")
+@Table(name = "USERS", indexes = {
+    // case-insensitive email lookups, filled by the entity and by EmailNormalizationBackfill
+    @Index(name = "UK_USERS_EMAIL_NORMALIZED", columnList = "EMAIL_NORMALIZED", unique = true),
+    // keyset scan of the purge job over marked users, the cutoff is checked inside the index
+    @Index(name = "IDX_USERS_MARKED_FOR_DELETION", columnList = "MARKED_FOR_DELETION, ID, MARKED_AT"),
+    // keyset pages of the admin search, unfiltered and per flag filter
+    @Index(name = "IDX_USERS_CREATED", columnList = "CREATED_DATE, ID"),
+    @Index(name = "IDX_USERS_ENABLED_CREATED", columnList = "IS_ENABLED, CREATED_DATE, ID"),
+    @Index(name = "IDX_USERS_LOCKED_CREATED", columnList = "IS_ACCOUNT_LOCKED, CREATED_DATE, ID"),
+    @Index(name = "IDX_USERS_MARKED_CREATED", columnList = "MARKED_FOR_DELETION, CREATED_DATE, ID")
+})
 @EntityListeners(AuditingEntityListener.class)
-public class User implements UserDetails {
+public class User implements UserPrincipal {
+
+    public static final String ROLES_CACHE_REGION = "user-roles";
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
+    @JavaType(BinaryUuidJavaType.class)
+    @Column(name = "ID", length = BinaryUuid.BYTES)
     private String id;
 
     @Column(name = "FIRST_NAME", nullable = false)
@@ -56,6 +77,9 @@ public class User implements UserDetails {
     @Column(name = "EMAIL", nullable = false, unique = true)
     private String email;
 
+    @Column(name = "EMAIL_NORMALIZED")
+    private String emailNormalized;
+
     @Column(name = "PHONE_NUMBER", nullable = false, unique = true)
     private String phoneNumber;
 
@@ -95,24 +119,54 @@ public class User implements UserDetails {
     @Column(name = "MARKED_AT", insertable = false)
     private LocalDateTime markedAt;
 
+    @Column(name = "TOKEN_VERSION", nullable = false)
+    private int tokenVersion;
+
+    /**
+     * Bits of the user's roles as assigned by {@link RoleRegistry}, a copy of {@link #roles} kept
+     * in sync on every write so that authorities never need the join.
+     */
+    @Column(name = "ROLE_MASK", nullable = false)
+    private long roleMask;
+
     @ManyToMany(
         cascade = {CascadeType.PERSIST, CascadeType.MERGE},
-    fetch = FetchType.EAGER)
+    fetch = FetchType.LAZY)
     @JoinTable(
         name = "USERS_ROLES",
         joinColumns = {@JoinColumn(name = "USERS_ID")},
         inverseJoinColumns = {@JoinColumn(name = "ROLES_ID")}
     )
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ROLES_CACHE_REGION)
     private Set<Role> roles = new HashSet<>();
 
+    /**
+     * Lower-cases an email the way it is stored in {@code EMAIL_NORMALIZED}, lookups must use it
+     * to hit the unique index.
+     */
+    public static String normalizeEmail(final String email) {
+        return email == null ? null : email.toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void updateDerivedColumns() {
+        this.emailNormalized = normalizeEmail(this.email);
+        if (this.roles != null && Hibernate.isInitialized(this.roles)) {
+            this.roleMask = RoleRegistry.mask(this.roles);
+        }
+    }
+
+    /**
+     * Resolved from the role mask, the roles themselves are not loaded.
+     */
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        if (CollectionUtils.isEmpty(this.roles)) {
-            return List.of();
-        }
-        return this.roles.stream()
-            .map(role -> new SimpleGrantedAuthority(role.getName()))
-            .toList();
+        return RoleRegistry.authorities(this.roleMask);
+    }
+
+    public boolean hasAuthority(final String authority) {
+        return RoleRegistry.hasAuthority(this.roleMask, authority);
     }
 
     @Override
@@ -140,8 +194,21 @@ public class User implements UserDetails {
         return !this.credentialExpired;
     }
 
+    /**
+     * Invalidates every token issued so far that describes this account on its own.
+     */
+    public void bumpTokenVersion() {
+        this.tokenVersion++;
+    }
+
+    public void setRoles(final Set<Role> roles) {
+        this.roles = roles;
+        this.roleMask = RoleRegistry.mask(roles);
+    }
+
     public void removeRole(Role role) {
         roles.remove(role);
         role.getUsers().remove(this);
+        this.roleMask = RoleRegistry.mask(roles);
     }
 }
@@ -0,0 +1,10 @@
+package com.manish.app.user.export;
+
+/**
+ * Last line of an export that failed midway, the users before it are an incomplete export.
+ *
+ * @param error    error code
+ * @param exported users written before the failure
+ */
+public record UserExportFailure(String error, long exported) {
+}
@@ -0,0 +1,48 @@
+package com.manish.app.user.export;
+
+import com.manish.app.user.entity.User;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Exported view of a user, one NDJSON line. Deliberately has no password field.
+ */
+public record UserExportRow(
+    String id,
+    String firstName,
+    String lastName,
+    String email,
+    String phoneNumber,
+    LocalDate dateOfBirth,
+    boolean enabled,
+    boolean locked,
+    boolean credentialExpired,
+    boolean emailVerified,
+    boolean phoneVerified,
+    LocalDateTime createdDate,
+    LocalDateTime lastModifiedDate,
+    List<String> roles
+) {
+
+    static UserExportRow of(final User user) {
+        return new UserExportRow(
+            user.getId(),
+            user.getFirstName(),
+            user.getLastName(),
+            user.getEmail(),
+            user.getPhoneNumber(),
+            user.getDateOfBirth(),
+            user.isEnabled(),
+            user.isLocked(),
+            user.isCredentialExpired(),
+            user.isEmailVerified(),
+            user.isPhoneVerified(),
+            user.getCreatedDate(),
+            user.getLastModifiedDate(),
+            user.getAuthorities().stream().map(GrantedAuthority::getAuthority).sorted().toList()
+        );
+    }
+}
@@ -0,0 +1,122 @@
+package com.manish.app.user.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manish.app.exception.ErrorCode;
+import com.manish.app.user.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams every user as NDJSON for compliance exports.
+ * <p>
+ * Users are read through a forward-only result set with the configured fetch size (a server-side
+ * cursor on MySQL with {@code useCursorFetch=true}) in one read-only transaction, their roles
+ * are resolved from the role mask without a join. Each user is detached once written, so neither
+ * the table nor the persistence context is ever held in memory.
+ * <p>
+ * The status line is sent before the first user, so a failure mid-stream cannot change it. The
+ * stream then ends with an {@link UserExportFailure} line instead, which a row never looks like,
+ * and the exception is rethrown so the request ends in error.
+ */
+@Slf4j
+@Service
+public class UserExportService {
+
+    private static final String ALL_USERS = "select u from User u order by u.id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public UserExportService(
+        final PlatformTransactionManager transactionManager,
+        final ObjectMapper objectMapper,
+        @Value("${app.users.export.fetch-size:1000}") final int fetchSize) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Writes one line per user to the output.
+     *
+     * @return the number of users exported
+     * @throws RuntimeException if the export is interrupted, after the failure line was written
+     */
+    public long exportUsers(final OutputStream output) {
+        final long start = System.nanoTime();
+        final Long exported = this.transactionTemplate.execute(status -> {
+            long count = 0;
+            try (Stream<User> users = this.entityManager.createQuery(ALL_USERS, User.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, this.fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_CACHEABLE, false)
+                .getResultStream()) {
+                final Iterator<User> iterator = users.iterator();
+                while (iterator.hasNext()) {
+                    final User user = iterator.next();
+                    write(output, UserExportRow.of(user));
+                    this.entityManager.detach(user);
+                    if (++count % this.fetchSize == 0) {
+                        flush(output);
+                    }
+                }
+                flush(output);
+                return count;
+            } catch (final RuntimeException e) {
+                log.error("User export interrupted after {} users", count, e);
+                writeFailure(output, count);
+                throw e;
+            }
+        });
+        log.info("Exported {} users in {} ms", exported, (System.nanoTime() - start) / 1_000_000);
+        return exported == null ? 0 : exported;
+    }
+
+    private void write(final OutputStream output, final UserExportRow row) {
+        try {
+            output.write(this.objectMapper.writeValueAsBytes(row));
+            output.write('\n');
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Best effort, the client may be the reason the export failed.
+     */
+    private void writeFailure(final OutputStream output, final long exported) {
+        try {
+            output.write(this.objectMapper.writeValueAsBytes(
+                new UserExportFailure(ErrorCode.EXPORT_INTERRUPTED.getCode(), exported)));
+            output.write('\n');
+            output.flush();
+        } catch (final IOException | RuntimeException e) {
+            log.debug("Could not write the export failure line", e);
+        }
+    }
+
+    private static void flush(final OutputStream output) {
+        try {
+            output.flush();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.manish.app.user.importer;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Input formats accepted by the user import.
+ */
+public enum ImportFormat {
+    /**
+     * Comma separated with a header row naming the {@code RegistrationRequest} properties,
+     * fields may be double-quoted but must not span lines.
+     */
+    CSV,
+    /**
+     * One {@code RegistrationRequest} JSON object per line.
+     */
+    NDJSON;
+
+    public static final String TEXT_CSV = "text/csv";
+    public static final String APPLICATION_NDJSON = MediaType.APPLICATION_NDJSON_VALUE;
+
+    public static ImportFormat fromContentType(final String contentType) {
+        return contentType != null && contentType.startsWith(TEXT_CSV) ? CSV : NDJSON;
+    }
+}
@@ -0,0 +1,13 @@
+package com.manish.app.user.importer;
+
+import com.manish.app.auth.request.RegistrationRequest;
+
+/**
+ * One parsed input row.
+ *
+ * @param line       line number in the input, starting at 1
+ * @param request    the parsed row, {@code null} if it could not be parsed
+ * @param parseError why the row could not be parsed
+ */
+record ImportRow(long line, RegistrationRequest request, String parseError) {
+}
@@ -0,0 +1,132 @@
+package com.manish.app.user.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manish.app.auth.request.RegistrationRequest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads import rows one line at a time, so only the current line is held in memory.
+ */
+class ImportRowReader {
+
+    private final BufferedReader reader;
+    private final ImportFormat format;
+    private final ObjectMapper objectMapper;
+    private Map<String, Integer> csvColumns;
+    private long line;
+
+    ImportRowReader(final BufferedReader reader, final ImportFormat format, final ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @return the next non-blank row, {@code null} at the end of the input
+     */
+    ImportRow next() {
+        try {
+            String text;
+            while ((text = this.reader.readLine()) != null) {
+                this.line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                if (this.format == ImportFormat.CSV && this.csvColumns == null) {
+                    this.csvColumns = header(parseCsvLine(text));
+                    continue;
+                }
+                return this.format == ImportFormat.CSV ? csvRow(text) : jsonRow(text);
+            }
+            return null;
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ImportRow jsonRow(final String text) {
+        try {
+            return new ImportRow(this.line, this.objectMapper.readValue(text, RegistrationRequest.class), null);
+        } catch (final JsonProcessingException e) {
+            return new ImportRow(this.line, null, "MALFORMED_ROW");
+        }
+    }
+
+    private ImportRow csvRow(final String text) {
+        final List<String> fields = parseCsvLine(text);
+        if (fields == null) {
+            return new ImportRow(this.line, null, "MALFORMED_ROW");
+        }
+        final String password = field(fields, "password");
+        final String confirmPassword = field(fields, "confirmpassword");
+        return new ImportRow(this.line, RegistrationRequest.builder()
+            .firstName(field(fields, "firstname"))
+            .lastName(field(fields, "lastname"))
+            .email(field(fields, "email"))
+            .phoneNumber(field(fields, "phonenumber"))
+            .password(password)
+            // files exported from another system carry no confirmation
+            .confirmPassword(this.csvColumns.containsKey("confirmpassword") ? confirmPassword : password)
+            .build(), null);
+    }
+
+    private String field(final List<String> fields, final String column) {
+        final Integer index = this.csvColumns.get(column);
+        return index == null || index >= fields.size() ? null : fields.get(index);
+    }
+
+    private static Map<String, Integer> header(final List<String> names) {
+        final Map<String, Integer> columns = new HashMap<>();
+        if (names != null) {
+            for (int i = 0; i < names.size(); i++) {
+                columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Splits one CSV line, {@code ""} inside a quoted field is a literal quote.
+     *
+     * @return the fields, {@code null} if a quoted field is not closed
+     */
+    static List<String> parseCsvLine(final String text) {
+        final List<String> fields = new ArrayList<>();
+        final StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
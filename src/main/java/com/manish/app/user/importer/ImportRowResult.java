@@ -0,0 +1,16 @@
+package com.manish.app.user.importer;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * A row that was not imported, written to the response stream as one NDJSON line.
+ *
+ * @param line   line number in the input
+ * @param email  email of the row, if it could be read
+ * @param errors error codes or validation message keys
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImportRowResult(long line, String email, List<String> errors) {
+}
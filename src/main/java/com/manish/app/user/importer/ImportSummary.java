@@ -0,0 +1,7 @@
+package com.manish.app.user.importer;
+
+/**
+ * Totals of an import, written as the last line of the response stream.
+ */
+public record ImportSummary(long rows, long imported, long failed, long elapsedMillis) {
+}
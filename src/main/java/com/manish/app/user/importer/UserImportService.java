@@ -0,0 +1,332 @@
+package com.manish.app.user.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manish.app.auth.request.RegistrationRequest;
+import com.manish.app.common.id.BinaryUuid;
+import com.manish.app.common.id.UuidV7;
+import com.manish.app.exception.ErrorCode;
+import com.manish.app.role.Role;
+import com.manish.app.role.RoleRegistry;
+import com.manish.app.role.RoleRepository;
+import com.manish.app.user.entity.User;
+import com.manish.app.user.mapper.UserMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk user import for tenant onboarding.
+ * <p>
+ * Rows are read in chunks: each chunk is validated with the {@link RegistrationRequest}
+ * constraints, checked for existing emails and phone numbers with one query per column, mapped
+ * and hashed through {@link UserMapper#toUser} in parallel on a pool of its own, so imports do
+ * not compete with logins for the {@code PasswordHashingExecutor}, and inserted with JDBC batches
+ * in one transaction. Rejected rows are written to the output as NDJSON lines as soon as their
+ * chunk is done, followed by an {@link ImportSummary}. Memory is bounded by the chunk size,
+ * whatever the size of the input.
+ */
+@Slf4j
+@Service
+public class UserImportService {
+
+    private static final String INSERT_USER = """
+        insert into USERS (ID, FIRST_NAME, LAST_NAME, EMAIL, EMAIL_NORMALIZED, PHONE_NUMBER, PASSWORD, IS_ENABLED,
+            IS_ACCOUNT_LOCKED, IS_CREDENTIAL_EXPIRED, IS_EMAIL_VERIFIED, IS_PHONE_VERIFIED, CREATED_DATE,
+            ROLE_MASK, MARKED_FOR_DELETION, TOKEN_VERSION)
+        values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, false, 0)
+        """;
+    private static final String INSERT_USER_ROLE = "insert into USERS_ROLES (USERS_ID, ROLES_ID) values (?, ?)";
+
+    private final Validator validator;
+    private final UserMapper userMapper;
+    private final RoleRepository roleRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService hashingPool;
+    private final int chunkSize;
+
+    public UserImportService(
+        final Validator validator,
+        final UserMapper userMapper,
+        final RoleRepository roleRepository,
+        final JdbcTemplate jdbcTemplate,
+        final PlatformTransactionManager transactionManager,
+        final ObjectMapper objectMapper,
+        final MeterRegistry meterRegistry,
+        @Value("${app.users.import.chunk-size:500}") final int chunkSize,
+        @Value("${app.users.import.hashing-threads:0}") final int hashingThreads) {
+        this.validator = validator;
+        this.userMapper = userMapper;
+        this.roleRepository = roleRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        final int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        final AtomicInteger counter = new AtomicInteger();
+        this.hashingPool = Executors.newFixedThreadPool(threads, runnable -> {
+            final Thread thread = new Thread(runnable, "user-import-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        ExecutorServiceMetrics.monitor(meterRegistry, this.hashingPool, "user.import.hashing", List.of());
+    }
+
+    /**
+     * Imports the users of the input and streams the rejected rows and the summary to the output.
+     */
+    public ImportSummary importUsers(final InputStream input, final ImportFormat format, final OutputStream output) {
+        final long start = System.nanoTime();
+        final Role userRole = this.roleRepository.findByName("ROLE_USER")
+            .orElseThrow(() -> new EntityNotFoundException("Role user does not exist"));
+        final ImportRowReader reader = new ImportRowReader(
+            new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)), format, this.objectMapper);
+        long rows = 0;
+        long imported = 0;
+        final List<ImportRow> chunk = new ArrayList<>(this.chunkSize);
+        ImportRow row;
+        do {
+            row = reader.next();
+            if (row != null) {
+                chunk.add(row);
+                rows++;
+            }
+            if (chunk.size() == this.chunkSize || (row == null && !chunk.isEmpty())) {
+                imported += importChunk(chunk, userRole, output);
+                chunk.clear();
+            }
+        } while (row != null);
+        final ImportSummary summary = new ImportSummary(rows, imported, rows - imported,
+            (System.nanoTime() - start) / 1_000_000);
+        write(output, summary);
+        log.info("Imported {} of {} users in {} ms", summary.imported(), summary.rows(), summary.elapsedMillis());
+        return summary;
+    }
+
+    private int importChunk(final List<ImportRow> chunk, final Role role, final OutputStream output) {
+        final List<ImportRowResult> rejected = new ArrayList<>();
+        final List<ImportRow> accepted = validate(chunk, rejected);
+        final List<Future<User>> mapped = new ArrayList<>(accepted.size());
+        for (final ImportRow row : accepted) {
+            mapped.add(this.hashingPool.submit(() -> this.userMapper.toUser(row.request())));
+        }
+        final List<User> users = new ArrayList<>(accepted.size());
+        final List<ImportRow> userRows = new ArrayList<>(accepted.size());
+        final Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (int i = 0; i < accepted.size(); i++) {
+            try {
+                final User user = mapped.get(i).get();
+                user.setId(UuidV7.next().toString());
+                user.setCreatedDate(now.toLocalDateTime());
+                users.add(user);
+                userRows.add(accepted.get(i));
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("User import interrupted", e);
+            } catch (final ExecutionException e) {
+                rejected.add(rejection(accepted.get(i), ErrorCode.INTERNAL_ERROR.getCode()));
+            }
+        }
+        final int inserted = insert(users, userRows, role, rejected);
+        rejected.sort((a, b) -> Long.compare(a.line(), b.line()));
+        rejected.forEach(result -> write(output, result));
+        flush(output);
+        return inserted;
+    }
+
+    /**
+     * Drops rows that fail validation, repeat an email or phone number of the chunk, or already
+     * exist in the database.
+     */
+    private List<ImportRow> validate(final List<ImportRow> chunk, final List<ImportRowResult> rejected) {
+        final List<ImportRow> valid = new ArrayList<>(chunk.size());
+        final Set<String> emails = new HashSet<>();
+        final Set<String> phoneNumbers = new HashSet<>();
+        for (final ImportRow row : chunk) {
+            if (row.request() == null) {
+                rejected.add(new ImportRowResult(row.line(), null, List.of(row.parseError())));
+                continue;
+            }
+            final List<String> errors = this.validator.validate(row.request()).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .toList();
+            if (!errors.isEmpty()) {
+                rejected.add(new ImportRowResult(row.line(), row.request().getEmail(), errors));
+            } else if (!row.request().getPassword().equals(row.request().getConfirmPassword())) {
+                rejected.add(rejection(row, ErrorCode.PASSWORD_MISMATCH.getCode()));
+            } else if (!emails.add(User.normalizeEmail(row.request().getEmail()))) {
+                rejected.add(rejection(row, ErrorCode.EMAIL_ALREADY_EXISTS.getCode()));
+            } else if (!phoneNumbers.add(row.request().getPhoneNumber())) {
+                rejected.add(rejection(row, ErrorCode.PHONE_ALREADY_EXISTS.getCode()));
+            } else {
+                valid.add(row);
+            }
+        }
+        if (valid.isEmpty()) {
+            return valid;
+        }
+        // rows the email backfill has not reached yet are caught by the unique EMAIL index on insert
+        final Set<String> existingEmails = existing("EMAIL_NORMALIZED", emails);
+        final Set<String> existingPhoneNumbers = existing("PHONE_NUMBER", phoneNumbers);
+        final List<ImportRow> fresh = new ArrayList<>(valid.size());
+        for (final ImportRow row : valid) {
+            if (existingEmails.contains(User.normalizeEmail(row.request().getEmail()))) {
+                rejected.add(rejection(row, ErrorCode.EMAIL_ALREADY_EXISTS.getCode()));
+            } else if (existingPhoneNumbers.contains(row.request().getPhoneNumber())) {
+                rejected.add(rejection(row, ErrorCode.PHONE_ALREADY_EXISTS.getCode()));
+            } else {
+                fresh.add(row);
+            }
+        }
+        return fresh;
+    }
+
+    private Set<String> existing(final String column, final Set<String> values) {
+        if (values.isEmpty()) {
+            return Set.of();
+        }
+        final String in = String.join(",", Collections.nCopies(values.size(), "?"));
+        final Set<String> found = new HashSet<>();
+        this.jdbcTemplate.query("select " + column + " from USERS where " + column + " in (" + in + ")",
+            rs -> {
+                found.add(rs.getString(1));
+            }, values.toArray());
+        return found;
+    }
+
+    /**
+     * Inserts the chunk in one transaction. If the batch violates a constraint, e.g. a unique one
+     * after a concurrent registration, the rows are retried one by one to isolate the failing ones.
+     */
+    private int insert(final List<User> users, final List<ImportRow> rows, final Role role,
+        final List<ImportRowResult> rejected) {
+        if (users.isEmpty()) {
+            return 0;
+        }
+        try {
+            this.transactionTemplate.executeWithoutResult(status -> insertBatch(users, role));
+            return users.size();
+        } catch (final DataIntegrityViolationException e) {
+            log.debug("Import batch conflicted, retrying {} rows one by one", users.size());
+        }
+        int inserted = 0;
+        for (int i = 0; i < users.size(); i++) {
+            final List<User> single = List.of(users.get(i));
+            try {
+                this.transactionTemplate.executeWithoutResult(status -> insertBatch(single, role));
+                inserted++;
+            } catch (final DataIntegrityViolationException e) {
+                log.debug("Import row {} rejected by the database: {}", rows.get(i).line(),
+                    e.getMostSpecificCause().getMessage());
+                rejected.add(rejection(rows.get(i), rejectionCode(e).getCode()));
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * Only a duplicate key on one of the email or phone number unique indexes is a conflict with
+     * an existing user; any other violation (not null, length, ...) is a row the database cannot
+     * store. The index is recognized by its name in the driver's message.
+     */
+    static ErrorCode rejectionCode(final DataIntegrityViolationException e) {
+        if (e instanceof DuplicateKeyException) {
+            final String message = String.valueOf(e.getMostSpecificCause().getMessage()).toUpperCase(Locale.ROOT);
+            // checked before UK_USERS_EMAIL, which is a prefix of it
+            if (message.contains("UK_USERS_EMAIL_NORMALIZED")) {
+                return ErrorCode.EMAIL_ALREADY_EXISTS;
+            }
+            if (message.contains("UK_USERS_PHONE_NUMBER")) {
+                return ErrorCode.PHONE_ALREADY_EXISTS;
+            }
+            // rows the email backfill has not reached yet
+            if (message.contains("UK_USERS_EMAIL")) {
+                return ErrorCode.EMAIL_ALREADY_EXISTS;
+            }
+        }
+        return ErrorCode.INVALID_USER_DATA;
+    }
+
+    private void insertBatch(final List<User> users, final Role role) {
+        final long roleMask = RoleRegistry.mask(List.of(role));
+        this.jdbcTemplate.batchUpdate(INSERT_USER, users, users.size(), (ps, user) -> {
+            ps.setBytes(1, BinaryUuid.toBytes(user.getId()));
+            ps.setString(2, user.getFirstName());
+            ps.setString(3, user.getLastName());
+            ps.setString(4, user.getEmail());
+            ps.setString(5, User.normalizeEmail(user.getEmail()));
+            ps.setString(6, user.getPhoneNumber());
+            ps.setString(7, user.getPassword());
+            ps.setBoolean(8, user.isEnabled());
+            ps.setBoolean(9, user.isLocked());
+            ps.setBoolean(10, user.isCredentialExpired());
+            ps.setBoolean(11, user.isEmailVerified());
+            ps.setBoolean(12, user.isPhoneVerified());
+            ps.setTimestamp(13, Timestamp.valueOf(user.getCreatedDate()));
+            ps.setLong(14, roleMask);
+        });
+        this.jdbcTemplate.batchUpdate(INSERT_USER_ROLE, users, users.size(), (ps, user) -> {
+            ps.setBytes(1, BinaryUuid.toBytes(user.getId()));
+            ps.setBytes(2, BinaryUuid.toBytes(role.getId()));
+        });
+    }
+
+    private static ImportRowResult rejection(final ImportRow row, final String code) {
+        return new ImportRowResult(row.line(), row.request().getEmail(), List.of(code));
+    }
+
+    private void write(final OutputStream output, final Object line) {
+        try {
+            output.write(this.objectMapper.writeValueAsBytes(line));
+            output.write('\n');
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void flush(final OutputStream output) {
+        try {
+            output.flush();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.hashingPool.shutdown();
+    }
+}
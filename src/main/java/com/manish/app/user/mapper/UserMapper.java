@@ -30,12 +30,19 @@ public class UserMapper {
     }
 
     public User toUser(final RegistrationRequest request) {
+        return toUser(request, passwordEncoder.encode(request.getPassword()));
+    }
+
+    /**
+     * Maps the request with a password the caller has already encoded.
+     */
+    public User toUser(final RegistrationRequest request, final String encodedPassword) {
         return User.builder()
             .firstName(request.getFirstName())
             .lastName(request.getLastName())
             .email(request.getEmail())
             .phoneNumber(request.getPhoneNumber())
-            .password(passwordEncoder.encode(request.getPassword()))
+            .password(encodedPassword)
             .enabled(true)
             .locked(false)
             .credentialExpired(false)
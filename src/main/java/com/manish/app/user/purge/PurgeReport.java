@@ -0,0 +1,21 @@
+package com.manish.app.user.purge;
+
+/**
+ * Outcome of one purge run.
+ *
+ * @param users       user rows deleted
+ * @param linkedRows  role memberships and refresh tokens deleted along with the users
+ * @param chunks      transactions committed
+ * @param elapsedMillis wall-clock duration of the run
+ */
+public record PurgeReport(long users, long linkedRows, int chunks, long elapsedMillis) {
+
+    /**
+     * Returned when a run was skipped because another one was still in progress.
+     */
+    public static final PurgeReport SKIPPED = new PurgeReport(0, 0, 0, 0);
+
+    public double rowsPerSecond() {
+        return this.elapsedMillis == 0 ? 0 : (this.users + this.linkedRows) * 1000.0 / this.elapsedMillis;
+    }
+}
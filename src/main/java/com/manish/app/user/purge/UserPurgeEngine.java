@@ -0,0 +1,166 @@
+package com.manish.app.user.purge;
+
+import com.manish.app.common.id.BinaryUuid;
+import com.manish.app.config.CacheConfig;
+import com.manish.app.scheduling.IdPartition;
+import com.manish.app.user.entity.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Deletes users marked for deletion with set-based statements, one short transaction per chunk.
+ * <p>
+ * Marked ids are read by keyset pagination on the primary key, never all at once, and each
+ * chunk deletes its role memberships, refresh tokens and user rows with one {@code IN} statement
+ * per table. Nothing is loaded into the persistence context, so role membership collections are
+ * never initialized. Committed chunks are gone from the table, so a run interrupted by a crash
+ * simply continues with the remaining rows the next time it runs.
+ * <p>
+ * Only the user details cache is evicted. The second-level cache may still hold the role
+ * memberships of purged users, but ids are never reused, so nothing reads them again before
+ * they expire.
+ */
+@Slf4j
+@Component
+public class UserPurgeEngine {
+
+    // answered from IDX_USERS_MARKED_FOR_DELETION alone, without reading the rows
+    private static final String SELECT_MARKED = """
+        select ID from USERS
+        where MARKED_FOR_DELETION = true and ID > ? and MARKED_AT < ?
+        order by ID
+        limit ?
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final int chunkSize;
+    // a run can outlast its schedule period, overlapping runs would fight over the same rows
+    private final ReentrantLock runLock = new ReentrantLock();
+
+    public UserPurgeEngine(
+        final JdbcTemplate jdbcTemplate,
+        final PlatformTransactionManager transactionManager,
+        final CacheManager cacheManager,
+        @Value("${app.users.purge.chunk-size:500}") final int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheManager = cacheManager;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Deletes every user marked for deletion before the cutoff.
+     *
+     * @return the report of this run, {@link PurgeReport#SKIPPED} if another run is still in progress
+     */
+    public PurgeReport purgeMarkedBefore(final LocalDateTime cutoff) {
+        return purgeMarkedBefore(cutoff, IdPartition.ALL);
+    }
+
+    /**
+     * Deletes the users marked for deletion before the cutoff whose ids fall into the partition.
+     * Every partition walks all marked ids in the index and deletes its own share of them.
+     *
+     * @return the report of this run, {@link PurgeReport#SKIPPED} if another run is still in progress
+     */
+    public PurgeReport purgeMarkedBefore(final LocalDateTime cutoff, final IdPartition partition) {
+        if (!this.runLock.tryLock()) {
+            log.info("Skipping user purge, previous run still in progress");
+            return PurgeReport.SKIPPED;
+        }
+        try {
+            return purge(Timestamp.valueOf(cutoff), partition);
+        } finally {
+            this.runLock.unlock();
+        }
+    }
+
+    private PurgeReport purge(final Timestamp cutoff, final IdPartition partition) {
+        final long start = System.nanoTime();
+        long users = 0;
+        long linkedRows = 0;
+        int chunks = 0;
+        // no id is all zeros, their version bits are set
+        byte[] lastId = new byte[BinaryUuid.BYTES];
+        while (true) {
+            final List<byte[]> marked = new ArrayList<>(this.chunkSize);
+            this.jdbcTemplate.query(SELECT_MARKED, (RowCallbackHandler) rs -> marked.add(rs.getBytes(1)),
+                lastId, cutoff, this.chunkSize);
+            if (marked.isEmpty()) {
+                break;
+            }
+            lastId = marked.get(marked.size() - 1);
+            final List<byte[]> ids = marked.stream()
+                .filter(id -> partition.contains(BinaryUuid.toString(id)))
+                .toList();
+            if (ids.isEmpty()) {
+                continue;
+            }
+            final List<String> emails = new ArrayList<>(ids.size());
+            final long[] deleted = this.transactionTemplate.execute(status -> deleteChunk(ids, cutoff, emails));
+            users += deleted[0];
+            linkedRows += deleted[1];
+            chunks++;
+            evictUserDetails(emails);
+            log.debug("Purged chunk {}: {} users, {} linked rows", chunks, deleted[0], deleted[1]);
+        }
+        final PurgeReport report = new PurgeReport(users, linkedRows, chunks,
+            (System.nanoTime() - start) / 1_000_000);
+        log.info("Purged {} users and {} linked rows of partition {} in {} chunks, {} ms ({} rows/s)",
+            report.users(), report.linkedRows(), partition, report.chunks(), report.elapsedMillis(),
+            Math.round(report.rowsPerSecond()));
+        return report;
+    }
+
+    /**
+     * Deletes one chunk; users reactivated since they were read keep their rows.
+     *
+     * @param emails receives the emails of the deleted users
+     * @return users deleted and linked rows deleted
+     */
+    private long[] deleteChunk(final List<byte[]> ids, final Timestamp cutoff, final List<String> emails) {
+        final String in = String.join(",", Collections.nCopies(ids.size(), "?"));
+        final Object[] userArgs = ids.toArray(new Object[ids.size() + 1]);
+        userArgs[ids.size()] = cutoff;
+
+        final List<Object> markedIds = new ArrayList<>(ids.size());
+        this.jdbcTemplate.query(
+            "select ID, EMAIL from USERS where ID in (" + in + ") and MARKED_FOR_DELETION = true and MARKED_AT < ? for update",
+            (RowCallbackHandler) rs -> {
+                markedIds.add(rs.getBytes(1));
+                emails.add(rs.getString(2));
+            }, userArgs);
+        if (markedIds.isEmpty()) {
+            return new long[]{0, 0};
+        }
+        final String markedIn = String.join(",", Collections.nCopies(markedIds.size(), "?"));
+        final Object[] markedArgs = markedIds.toArray();
+        final long linked = this.jdbcTemplate.update("delete from USERS_ROLES where USERS_ID in (" + markedIn + ")", markedArgs)
+            + this.jdbcTemplate.update("delete from REFRESH_TOKENS where USER_ID in (" + markedIn + ")", markedArgs);
+        final long users = this.jdbcTemplate.update("delete from USERS where ID in (" + markedIn + ")", markedArgs);
+        return new long[]{users, linked};
+    }
+
+    private void evictUserDetails(final List<String> emails) {
+        final Cache cache = this.cacheManager.getCache(CacheConfig.USER_DETAILS_CACHE);
+        if (cache != null) {
+            emails.forEach(email -> cache.evict(User.normalizeEmail(email)));
+        }
+    }
+}
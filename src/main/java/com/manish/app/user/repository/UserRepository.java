@@ -2,20 +2,45 @@ package com.manish.app.user.repository;
 
 import com.manish.app.user.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, String> {
 
+    /**
+     * @param emailNormalized email passed through {@link User#normalizeEmail}
+     */
+    boolean existsByEmailNormalized(String emailNormalized);
+
+    /**
+     * @param emailNormalized email passed through {@link User#normalizeEmail}
+     */
+    Optional<User> findByEmailNormalized(String emailNormalized);
+
+    /**
+     * Scans the table, only for rows not normalized yet while the backfill is running.
+     */
     boolean existsByEmailIgnoreCase(String email);
 
+    /**
+     * Scans the table, only for rows not normalized yet while the backfill is running.
+     */
     Optional<User> findByEmailIgnoreCase(String email);
 
     boolean existsByPhoneNumber(String phoneNumber);
 
-    List<User> findAllByMarkedForDeletionTrueAndMarkedAtBefore(LocalDateTime cutoff);
+    /**
+     * Replaces the password hash only if it is still the one that was verified, so a concurrent
+     * password change is never overwritten by a rehash.
+     */
+    @Modifying
+    @Query("update User u set u.password = :newPassword where u.id = :id and u.password = :currentPassword")
+    int updatePasswordIfUnchanged(@Param("id") String id,
+                                  @Param("currentPassword") String currentPassword,
+                                  @Param("newPassword") String newPassword);
 }
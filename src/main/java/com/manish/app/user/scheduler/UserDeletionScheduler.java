@@ -1,22 +1,56 @@
 package com.manish.app.user.scheduler;
 
+import com.manish.app.scheduling.ClusterMembership;
+import com.manish.app.scheduling.IdPartition;
+import com.manish.app.scheduling.JobLock;
 import com.manish.app.user.service.UserService;
-import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
+/**
+ * Runs the hourly purge of users marked for deletion on a cluster of nodes. By default one node
+ * takes the {@value #LOCK_NAME} lease and purges everything; in partitioned mode every live node
+ * purges its own share of the id space under a lease per partition.
+ */
 @Component
-@RequiredArgsConstructor
 public class UserDeletionScheduler {
 
+    static final String LOCK_NAME = "user-purge";
+
     private final UserService userService;
+    private final JobLock jobLock;
+    private final ClusterMembership clusterMembership;
+    private final boolean partitioned;
+    private final Duration leaseTime;
     private final Logger log = LoggerFactory.getLogger(UserDeletionScheduler.class);
 
+    public UserDeletionScheduler(
+        final UserService userService,
+        final JobLock jobLock,
+        final ClusterMembership clusterMembership,
+        @Value("${app.users.purge.partitioned:false}") final boolean partitioned,
+        @Value("${app.users.purge.lease-time:55m}") final Duration leaseTime) {
+        this.userService = userService;
+        this.jobLock = jobLock;
+        this.clusterMembership = clusterMembership;
+        this.partitioned = partitioned;
+        this.leaseTime = leaseTime;
+    }
+
     @Scheduled(cron = "0 0 * * * *") // every hour
     public void deleteMarkedUsers() {
         log.info("Running scheduled deletion task");
-        userService.processScheduledDeletions();
+        if (!partitioned) {
+            jobLock.runExclusively(LOCK_NAME, leaseTime, userService::processScheduledDeletions);
+            return;
+        }
+        final IdPartition partition = clusterMembership.ownPartition();
+        final String partitionLock = LOCK_NAME + ":" + partition;
+        jobLock.runExclusively(partitionLock, leaseTime, () -> userService.processScheduledDeletions(partition));
     }
 }
@@ -0,0 +1,44 @@
+package com.manish.app.user.search;
+
+import com.manish.app.exception.BusinessException;
+import com.manish.app.exception.ErrorCode;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last row of a page in the {@code (createdDate, id)} order, encoded so clients
+ * treat it as opaque.
+ */
+record SearchCursor(LocalDateTime createdDate, String id) {
+
+    private static final char SEPARATOR = '|';
+
+    static SearchCursor after(final UserSummary row) {
+        return new SearchCursor(row.createdDate(), row.id());
+    }
+
+    String encode() {
+        final String raw = this.createdDate.toString() + SEPARATOR + this.id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static SearchCursor decode(final String cursor) {
+        try {
+            final String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            final int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new BusinessException(ErrorCode.INVALID_SEARCH_CURSOR);
+            }
+            final String id = raw.substring(separator + 1);
+            // ids are bound as binary, a malformed one must be rejected here
+            UUID.fromString(id);
+            return new SearchCursor(LocalDateTime.parse(raw.substring(0, separator)), id);
+        } catch (final IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessException(ErrorCode.INVALID_SEARCH_CURSOR);
+        }
+    }
+}
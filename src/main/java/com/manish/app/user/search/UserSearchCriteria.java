@@ -0,0 +1,19 @@
+package com.manish.app.user.search;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filters of the admin user search, every {@code null} filter is ignored.
+ *
+ * @param createdFrom inclusive lower bound of the creation date
+ * @param createdTo   exclusive upper bound of the creation date
+ */
+public record UserSearchCriteria(
+    Boolean enabled,
+    Boolean locked,
+    Boolean markedForDeletion,
+    String emailPrefix,
+    LocalDateTime createdFrom,
+    LocalDateTime createdTo
+) {
+}
@@ -0,0 +1,11 @@
+package com.manish.app.user.search;
+
+import java.util.List;
+
+/**
+ * One page of search results.
+ *
+ * @param nextCursor opaque position to pass for the following page, {@code null} on the last page
+ */
+public record UserSearchPage(List<UserSummary> items, String nextCursor) {
+}
@@ -0,0 +1,128 @@
+package com.manish.app.user.search;
+
+import com.manish.app.user.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Admin search over users, newest first.
+ * <p>
+ * Pages are addressed by a keyset cursor on {@code (createdDate, id)} instead of an offset, so
+ * every page is a range scan of the composite indexes declared on {@link User} and costs the same
+ * however deep it is. Only the {@link UserSummary} columns are selected, no entity or role is
+ * loaded.
+ */
+@Service
+public class UserSearchService {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public UserSearchService(
+        @Value("${app.users.search.default-page-size:20}") final int defaultPageSize,
+        @Value("${app.users.search.max-page-size:100}") final int maxPageSize) {
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * @param cursor   {@link UserSearchPage#nextCursor()} of the previous page, {@code null} for the first
+     * @param pageSize requested page size, clamped to the configured maximum, the default if {@code null}
+     */
+    @Transactional(readOnly = true)
+    public UserSearchPage search(final UserSearchCriteria criteria, final String cursor, final Integer pageSize) {
+        final int limit = pageSize == null ? this.defaultPageSize : Math.max(1, Math.min(pageSize, this.maxPageSize));
+        final CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+        final CriteriaQuery<UserSummary> query = cb.createQuery(UserSummary.class);
+        final Root<User> user = query.from(User.class);
+        final Path<LocalDateTime> createdDate = user.get("createdDate");
+        final Path<String> id = user.get("id");
+
+        final List<Predicate> predicates = filters(cb, user, criteria);
+        if (StringUtils.hasText(cursor)) {
+            final SearchCursor position = SearchCursor.decode(cursor);
+            predicates.add(cb.or(
+                cb.lessThan(createdDate, position.createdDate()),
+                cb.and(cb.equal(createdDate, position.createdDate()), cb.lessThan(id, position.id()))));
+        }
+        query.select(cb.construct(UserSummary.class,
+                id,
+                user.get("firstName"),
+                user.get("lastName"),
+                user.get("email"),
+                user.get("enabled"),
+                user.get("locked"),
+                user.get("markedForDeletion"),
+                createdDate))
+            .where(predicates.toArray(Predicate[]::new))
+            .orderBy(cb.desc(createdDate), cb.desc(id));
+
+        // one extra row tells whether there is a next page without a count query
+        final List<UserSummary> rows = this.entityManager.createQuery(query)
+            .setMaxResults(limit + 1)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultList();
+        if (rows.size() <= limit) {
+            return new UserSearchPage(rows, null);
+        }
+        final List<UserSummary> page = rows.subList(0, limit);
+        return new UserSearchPage(List.copyOf(page), SearchCursor.after(page.get(limit - 1)).encode());
+    }
+
+    private static List<Predicate> filters(final CriteriaBuilder cb, final Root<User> user,
+        final UserSearchCriteria criteria) {
+        final List<Predicate> predicates = new ArrayList<>();
+        if (criteria.enabled() != null) {
+            predicates.add(cb.equal(user.get("enabled"), criteria.enabled()));
+        }
+        if (criteria.locked() != null) {
+            predicates.add(cb.equal(user.get("locked"), criteria.locked()));
+        }
+        if (criteria.markedForDeletion() != null) {
+            predicates.add(cb.equal(user.get("markedForDeletion"), criteria.markedForDeletion()));
+        }
+        if (StringUtils.hasText(criteria.emailPrefix())) {
+            // a plain prefix match on the normalized column keeps its unique index usable
+            final String prefix = User.normalizeEmail(criteria.emailPrefix().trim());
+            predicates.add(cb.like(user.get("emailNormalized"), escapeLike(prefix) + '%', LIKE_ESCAPE));
+        }
+        if (criteria.createdFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(user.get("createdDate"), criteria.createdFrom()));
+        }
+        if (criteria.createdTo() != null) {
+            predicates.add(cb.lessThan(user.get("createdDate"), criteria.createdTo()));
+        }
+        return predicates;
+    }
+
+    private static String escapeLike(final String value) {
+        final StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == LIKE_ESCAPE || c == '%' || c == '_') {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,19 @@
+package com.manish.app.user.search;
+
+import java.time.LocalDateTime;
+
+/**
+ * Columns of a user shown in admin search results, selected directly instead of loading the entity
+ * and its roles.
+ */
+public record UserSummary(
+    String id,
+    String firstName,
+    String lastName,
+    String email,
+    boolean enabled,
+    boolean locked,
+    boolean markedForDeletion,
+    LocalDateTime createdDate
+) {
+}
@@ -1,14 +1,23 @@
 package com.manish.app.user.service;
 
+import com.manish.app.scheduling.IdPartition;
+import com.manish.app.user.entity.User;
 import com.manish.app.user.request.ChangePasswordRequest;
 import com.manish.app.user.request.ProfileUpdateRequest;
 import org.springframework.security.core.userdetails.UserDetailsService;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface UserService extends UserDetailsService {
 
+    /**
+     * The user with its password hash for authentication at login, never served from the cache.
+     */
+    User loadUserForLogin(String userEmail);
+
     void updateProfileInfo(ProfileUpdateRequest request, String userId);
 
-    void changePassword(ChangePasswordRequest request, String userId);
+    CompletableFuture<Void> changePassword(ChangePasswordRequest request, String userId);
 
     void deactivateAccount(String userId);
 
@@ -16,5 +25,9 @@ public interface UserService extends UserDetailsService {
 
     void deleteAccount(String userId);
 
+    void upgradePasswordHash(User user, String newEncodedPassword);
+
     void processScheduledDeletions();
+
+    void processScheduledDeletions(IdPartition partition);
 }
@@ -1,27 +1,48 @@
 package com.manish.app.user.service.impl;
 
+import com.manish.app.audit.AuthAuditLog;
+import com.manish.app.audit.AuthEventType;
+import com.manish.app.auth.refresh.RefreshTokenStore;
+import com.manish.app.config.CacheConfig;
 import com.manish.app.exception.BusinessException;
 import com.manish.app.exception.ErrorCode;
-import com.manish.app.role.Role;
 import com.manish.app.role.RoleRepository;
+import com.manish.app.scheduling.IdPartition;
+import com.manish.app.security.PasswordHashingExecutor;
+import com.manish.app.security.PrincipalVersionTracker;
+import com.manish.app.security.UserSnapshot;
+import com.manish.app.user.backfill.EmailNormalizationBackfill;
 import com.manish.app.user.entity.User;
 import com.manish.app.user.mapper.UserMapper;
+import com.manish.app.user.purge.UserPurgeEngine;
 import com.manish.app.user.repository.UserRepository;
 import com.manish.app.user.service.UserService;
 import com.manish.app.user.request.ChangePasswordRequest;
 import com.manish.app.user.request.ProfileUpdateRequest;
+import com.manish.app.user.purge.PurgeReport;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
-import java.util.HashSet;
-import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
@@ -31,12 +52,59 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
     private final UserMapper userMapper;
+    private final PrincipalVersionTracker principalVersionTracker;
+    private final CacheManager cacheManager;
+    private final RefreshTokenStore refreshTokenStore;
+    private final UserPurgeEngine userPurgeEngine;
+    private final EmailNormalizationBackfill emailNormalizationBackfill;
+    private final AuthAuditLog authAuditLog;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private Timer userLoadTimer;
+    private Timer purgeTimer;
+    private Counter purgedUsers;
+    private Counter purgedLinkedRows;
 
+    @PostConstruct
+    void registerMeters() {
+        this.userLoadTimer = Timer.builder("auth.user.load")
+            .description("Database lookups of user details, cache hits excluded")
+            .register(this.meterRegistry);
+        this.purgeTimer = Timer.builder("users.purge.duration").register(this.meterRegistry);
+        this.purgedUsers = Counter.builder("users.purge.rows").tag("table", "users").register(this.meterRegistry);
+        this.purgedLinkedRows = Counter.builder("users.purge.rows").tag("table", "linked").register(this.meterRegistry);
+    }
+
+    /**
+     * Cached per normalized email as an immutable {@link UserSnapshot}; concurrent misses for the
+     * same email share a single query. Changes evict the entry on this node only, other nodes keep
+     * serving their copy until it expires, so the cache TTL bounds how stale they may be.
+     */
     @Override
+    @Cacheable(cacheNames = CacheConfig.USER_DETAILS_CACHE,
+        key = "T(com.manish.app.user.entity.User).normalizeEmail(#userEmail)", sync = true)
     public UserDetails loadUserByUsername(final String userEmail) throws UsernameNotFoundException {
-        return this.userRepository.findByEmailIgnoreCase(userEmail)
-            .orElseThrow(() -> new UsernameNotFoundException("User not found with userEmail: " + userEmail));
+        return UserSnapshot.of(loadUserForLogin(userEmail));
+    }
+
+    /**
+     * Loads the user with its password hash, bypassing the cache. Rows the backfill has not
+     * reached yet are found by the case-insensitive scan.
+     */
+    @Override
+    public User loadUserForLogin(final String userEmail) throws UsernameNotFoundException {
+        final long start = System.nanoTime();
+        try {
+            return this.userRepository.findByEmailNormalized(User.normalizeEmail(userEmail))
+                .or(() -> this.emailNormalizationBackfill.isComplete()
+                    ? Optional.empty()
+                    : this.userRepository.findByEmailIgnoreCase(userEmail))
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with userEmail: " + userEmail));
+        } finally {
+            this.userLoadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 
     @Override
@@ -47,24 +115,42 @@ public class UserServiceImpl implements UserService {
 
         this.userMapper.mergerUserInfo(saveduser, request);
         this.userRepository.save(saveduser);
+        evictUserDetails(saveduser.getEmail());
     }
 
+    /**
+     * Checks and encodes the password on the hashing pool; the user is read before and written
+     * after, in a transaction of its own, so no database work holds a hashing thread.
+     */
     @Override
-    @Transactional
-    public void changePassword(final ChangePasswordRequest request, final String userId) {
+    public CompletableFuture<Void> changePassword(final ChangePasswordRequest request, final String userId) {
         if (!request.getNewPassword().equals(request.getConfirmPassword())) {
+            this.authAuditLog.record(AuthEventType.PASSWORD_CHANGE_FAILED, userId, null);
             throw new BusinessException(ErrorCode.CHANGE_PASSWORD_MISMATCH);
         }
         final User savedUser = this.userRepository.findById(userId)
             .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND, userId));
-        if (this.passwordEncoder.matches(request.getCurrentPassword(),
-            savedUser.getPassword())) {
-            throw new BusinessException(ErrorCode.INVALID_CURRENT_PASSWORD);
-        }
+        final String storedPassword = savedUser.getPassword();
 
-        final String encoded = this.passwordEncoder.encode(request.getNewPassword());
-        savedUser.setPassword(encoded);
-        this.userRepository.save(savedUser);
+        return this.passwordHashingExecutor.submit(() ->
+                this.passwordEncoder.matches(request.getCurrentPassword(), storedPassword)
+                    ? null
+                    : this.passwordEncoder.encode(request.getNewPassword()))
+            .thenAccept(encoded -> {
+                if (encoded == null) {
+                    this.authAuditLog.record(AuthEventType.PASSWORD_CHANGE_FAILED, userId, savedUser.getEmail());
+                    throw new BusinessException(ErrorCode.INVALID_CURRENT_PASSWORD);
+                }
+                this.transactionTemplate.executeWithoutResult(status -> {
+                    final User user = this.userRepository.findById(userId)
+                        .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND, userId));
+                    user.setPassword(encoded);
+                    revokeIssuedTokens(user);
+                    this.userRepository.save(user);
+                    evictUserDetails(user.getEmail());
+                });
+                this.authAuditLog.record(AuthEventType.PASSWORD_CHANGED, userId, savedUser.getEmail());
+            });
     }
 
     @Override
@@ -77,7 +163,10 @@ public class UserServiceImpl implements UserService {
             throw new BusinessException(ErrorCode.ACCOUNT_ALREADY_DEACTIVATED, userId);
         }
         user.setEnabled(false);
+        revokeIssuedTokens(user);
         this.userRepository.save(user);
+        evictUserDetails(user.getEmail());
+        this.authAuditLog.record(AuthEventType.ACCOUNT_DEACTIVATED, userId, user.getEmail());
     }
 
     @Override
@@ -91,6 +180,8 @@ public class UserServiceImpl implements UserService {
         }
         user.setEnabled(true);
         this.userRepository.save(user);
+        evictUserDetails(user.getEmail());
+        this.authAuditLog.record(AuthEventType.ACCOUNT_REACTIVATED, userId, user.getEmail());
     }
 
     @Override
@@ -104,35 +195,91 @@ public class UserServiceImpl implements UserService {
 
         user.setMarkedForDeletion(true);
         user.setMarkedAt(LocalDateTime.now());
+        revokeIssuedTokens(user);
         userRepository.save(user);
+        evictUserDetails(user.getEmail());
+        this.authAuditLog.record(AuthEventType.ACCOUNT_DELETION_REQUESTED, userId, user.getEmail());
 
         log.info("User {} marked for deletion", userId);
     }
 
-
+    /**
+     * Stores a rehash of an unchanged password, e.g. after the work factor or algorithm changed.
+     * The security state is the same, so issued tokens stay valid.
+     */
+    @Override
     @Transactional
-    public void processScheduledDeletions() {
-        LocalDateTime cutoff = LocalDateTime.now().minusDays(1); // e.g., delay before deletion
-
-        List<User> usersToDelete = userRepository.findAllByMarkedForDeletionTrueAndMarkedAtBefore(cutoff);
-        final int batchSize = 50;
-        int counter = 0;
+    public void upgradePasswordHash(final User user, final String newEncodedPassword) {
+        final int updated = this.userRepository.updatePasswordIfUnchanged(
+            user.getId(), user.getPassword(), newEncodedPassword);
+        if (updated > 0) {
+            log.debug("Upgraded password hash for user {}", user.getId());
+            evictUserDetails(user.getEmail());
+        }
+    }
 
-        for (User user : usersToDelete) {
-            log.info("Deleting user: {}", user.getId());
+    /**
+     * Evicts the cached user details once the surrounding transaction has committed, so a
+     * concurrent load cannot put the pre-commit state back into the cache.
+     */
+    private void evictUserDetails(final String email) {
+        final Cache cache = this.cacheManager.getCache(CacheConfig.USER_DETAILS_CACHE);
+        if (cache == null || email == null) {
+            return;
+        }
+        final String key = User.normalizeEmail(email);
+        afterCommit(() -> cache.evict(key));
+    }
 
-            // Break associations
-            for (Role role : new HashSet<>(user.getRoles())) {
-                user.removeRole(role);
-            }
-            userRepository.delete(user);
+    /**
+     * Bumps the token version with the account and publishes it to the other nodes in the same
+     * transaction; the node-local revocations only take effect once the transaction has committed,
+     * a rolled back change revokes nothing.
+     */
+    private void revokeIssuedTokens(final User user) {
+        user.bumpTokenVersion();
+        final String userId = user.getId();
+        final int tokenVersion = user.getTokenVersion();
+        this.principalVersionTracker.publishVersion(userId, tokenVersion);
+        afterCommit(() -> {
+            this.principalVersionTracker.recordVersion(userId, tokenVersion);
+            this.refreshTokenStore.revokeAll(userId);
+        });
+    }
 
-            counter++;
-            if (counter % batchSize == 0) {
-                userRepository.flush();
-            }
+    private static void afterCommit(final Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
         }
+    }
 
-        log.info("Processed {} deletions", usersToDelete.size());
+    /**
+     * Deletes the accounts marked for deletion more than a day ago in chunks, see
+     * {@link UserPurgeEngine}.
+     */
+    @Override
+    public void processScheduledDeletions() {
+        processScheduledDeletions(IdPartition.ALL);
+    }
+
+    /**
+     * Same as {@link #processScheduledDeletions()} restricted to the ids of one partition.
+     */
+    @Override
+    public void processScheduledDeletions(final IdPartition partition) {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(1); // e.g., delay before deletion
+        final PurgeReport report = this.userPurgeEngine.purgeMarkedBefore(cutoff, partition);
+        if (report != PurgeReport.SKIPPED) {
+            this.purgeTimer.record(report.elapsedMillis(), TimeUnit.MILLISECONDS);
+            this.purgedUsers.increment(report.users());
+            this.purgedLinkedRows.increment(report.linkedRows());
+        }
     }
 }
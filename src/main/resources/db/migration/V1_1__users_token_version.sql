@@ -0,0 +1,2 @@
+-- Version of the account's issued tokens, bumped on password change and deactivation.
+alter table USERS add column TOKEN_VERSION integer default 0 not null;
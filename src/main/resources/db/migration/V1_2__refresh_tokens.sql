@@ -0,0 +1,12 @@
+-- Rotating refresh tokens, stored by hash and grouped into families for reuse detection.
+create table REFRESH_TOKENS (
+    TOKEN_HASH varchar(64)  not null,
+    FAMILY_ID  varchar(36)  not null,
+    USER_ID    varchar(255) not null,
+    USER_EMAIL varchar(255) not null,
+    ISSUED_AT  datetime(6)  not null,
+    EXPIRES_AT datetime(6)  not null,
+    USED_AT    datetime(6),
+    REVOKED    bit          not null,
+    constraint PK_REFRESH_TOKENS primary key (TOKEN_HASH)
+);
@@ -0,0 +1,8 @@
+-- Leases that let one node of the cluster run a scheduled job at a time.
+create table SCHEDULER_LOCKS (
+    NAME         varchar(64)  not null,
+    LOCKED_BY    varchar(255) not null,
+    LOCKED_AT    datetime(6)  not null,
+    LOCKED_UNTIL datetime(6)  not null,
+    constraint PK_SCHEDULER_LOCKS primary key (NAME)
+);
@@ -0,0 +1,6 @@
+-- Heartbeats of the live nodes, used to partition the purge between them.
+create table SCHEDULER_NODES (
+    NODE_ID      varchar(128) not null,
+    HEARTBEAT_AT datetime(6)  not null,
+    constraint PK_SCHEDULER_NODES primary key (NODE_ID)
+);
@@ -0,0 +1,2 @@
+-- Lower-cased, trimmed email for indexed lookups; existing rows are filled by the email backfill.
+alter table USERS add column EMAIL_NORMALIZED varchar(255);
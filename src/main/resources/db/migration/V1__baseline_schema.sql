@@ -0,0 +1,44 @@
+-- Schema of the original application as created by Hibernate (ddl-auto: update). Databases that
+-- already have it are baselined at this version (spring.flyway.baseline-on-migrate) and receive
+-- everything added since from V1_1 on, so nothing added later belongs here.
+-- Secondary indexes are added by V2.
+
+create table USERS (
+    ID                    varchar(255) not null,
+    FIRST_NAME            varchar(255) not null,
+    LAST_NAME             varchar(255) not null,
+    EMAIL                 varchar(255) not null,
+    PHONE_NUMBER          varchar(255) not null,
+    PASSWORD              varchar(255) not null,
+    DATE_OF_BIRTH         date,
+    IS_ENABLED            bit          not null,
+    IS_ACCOUNT_LOCKED     bit          not null,
+    IS_CREDENTIAL_EXPIRED bit          not null,
+    IS_EMAIL_VERIFIED     bit          not null,
+    IS_PHONE_VERIFIED     bit          not null,
+    CREATED_DATE          datetime(6)  not null,
+    LAST_MODIFIED_DATE    datetime(6),
+    MARKED_FOR_DELETION   bit          not null,
+    MARKED_AT             datetime(6),
+    constraint PK_USERS primary key (ID),
+    constraint UK_USERS_EMAIL unique (EMAIL),
+    constraint UK_USERS_PHONE_NUMBER unique (PHONE_NUMBER)
+);
+
+create table ROLES (
+    ID                 varchar(255) not null,
+    NAME               varchar(255),
+    CREATED_DATE       datetime(6)  not null,
+    LAST_MODIFIED_DATE datetime(6),
+    CREATED_BY         varchar(255) not null,
+    LAST_MODIFIED_BY   varchar(255),
+    constraint PK_ROLES primary key (ID)
+);
+
+create table USERS_ROLES (
+    USERS_ID varchar(255) not null,
+    ROLES_ID varchar(255) not null,
+    constraint PK_USERS_ROLES primary key (USERS_ID, ROLES_ID),
+    constraint FK_USERS_ROLES_USER foreign key (USERS_ID) references USERS (ID),
+    constraint FK_USERS_ROLES_ROLE foreign key (ROLES_ID) references ROLES (ID)
+);
@@ -0,0 +1,11 @@
+-- Audit trail written by AuthAuditLog. Append-only, USER_ID is null when the account is unknown
+-- (e.g. a failed login) and SUBJECT holds the email as presented.
+
+create table AUTH_AUDIT_EVENTS (
+    ID          bigint       not null auto_increment,
+    OCCURRED_AT datetime(6)  not null,
+    EVENT_TYPE  varchar(32)  not null,
+    USER_ID     binary(16),
+    SUBJECT     varchar(255),
+    constraint PK_AUTH_AUDIT_EVENTS primary key (ID)
+);
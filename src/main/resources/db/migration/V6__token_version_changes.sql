@@ -0,0 +1,13 @@
+-- Token version changes published by PrincipalVersionTracker and polled by every node, so that a
+-- stateless principal revoked on one node is refused on all. Rows older than the access token
+-- lifetime are deleted.
+
+create table TOKEN_VERSION_CHANGES (
+    ID            bigint      not null auto_increment,
+    USER_ID       binary(16)  not null,
+    TOKEN_VERSION integer     not null,
+    CHANGED_AT    datetime(6) not null,
+    constraint PK_TOKEN_VERSION_CHANGES primary key (ID)
+);
+
+create index IDX_TOKEN_VERSION_CHANGES_CHANGED_AT on TOKEN_VERSION_CHANGES (CHANGED_AT);
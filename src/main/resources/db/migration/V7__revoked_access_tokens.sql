@@ -0,0 +1,11 @@
+-- Access tokens revoked on logout, published by RevokedTokenFeed and polled by every node into its
+-- TokenDenylist. Rows are deleted once the token has expired.
+
+create table REVOKED_ACCESS_TOKENS (
+    TOKEN_ID   binary(16)  not null,
+    EXPIRES_AT datetime(6) not null,
+    REVOKED_AT datetime(6) not null,
+    constraint PK_REVOKED_ACCESS_TOKENS primary key (TOKEN_ID)
+);
+
+create index IDX_REVOKED_ACCESS_TOKENS_REVOKED_AT on REVOKED_ACCESS_TOKENS (REVOKED_AT);
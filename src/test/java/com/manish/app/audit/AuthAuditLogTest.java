@@ -0,0 +1,90 @@
+package com.manish.app.audit;
+
+import com.manish.app.common.id.BinaryUuid;
+import com.manish.app.common.id.UuidV7;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthAuditLogTest {
+
+    private static final String CREATE_TABLE = """
+        create table AUTH_AUDIT_EVENTS (ID bigint auto_increment primary key, OCCURRED_AT timestamp not null,
+            EVENT_TYPE varchar(32) not null, USER_ID binary(16), SUBJECT varchar(255))""";
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        this.jdbcTemplate = new JdbcTemplate(
+            new DriverManagerDataSource("jdbc:h2:mem:audit;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", ""));
+        this.jdbcTemplate.execute("drop all objects");
+        this.jdbcTemplate.execute(CREATE_TABLE);
+        this.meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void writesEventsOfConcurrentPublishersInBatches() throws Exception {
+        final AuthAuditLog auditLog = new AuthAuditLog(this.jdbcTemplate, 4096, 64, this.meterRegistry);
+        final String userId = UuidV7.next().toString();
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> publishers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            final Thread publisher = new Thread(() -> {
+                awaitQuietly(start);
+                for (int i = 0; i < 500; i++) {
+                    auditLog.record(AuthEventType.LOGIN_SUCCEEDED, userId, "john@mail.com");
+                }
+            });
+            publisher.start();
+            publishers.add(publisher);
+        }
+        start.countDown();
+        for (final Thread publisher : publishers) {
+            publisher.join();
+        }
+
+        auditLog.flush();
+
+        assertThat(this.jdbcTemplate.queryForObject("select count(*) from AUTH_AUDIT_EVENTS where USER_ID = ?",
+            Long.class, BinaryUuid.toBytes(userId))).isEqualTo(2000);
+        assertThat(this.meterRegistry.counter("auth.audit.dropped").count()).isZero();
+    }
+
+    @Test
+    void dropsAndCountsEventsWhileTheBufferIsFullAndRetriesFailedBatches() {
+        final AuthAuditLog auditLog = new AuthAuditLog(this.jdbcTemplate, 4, 2, this.meterRegistry);
+        this.jdbcTemplate.execute("drop table AUTH_AUDIT_EVENTS");
+
+        for (int i = 0; i < 6; i++) {
+            auditLog.record(AuthEventType.LOGIN_FAILED, null, "user" + i + "@mail.com");
+        }
+        // the write fails, the drained batch is kept and the buffer fills up again
+        auditLog.flush();
+        final boolean accepted = auditLog.record(AuthEventType.LOGIN_FAILED, null, "late@mail.com");
+        this.jdbcTemplate.execute(CREATE_TABLE);
+        auditLog.flush();
+
+        assertThat(accepted).isTrue();
+        assertThat(this.meterRegistry.counter("auth.audit.dropped").count()).isEqualTo(2);
+        assertThat(this.jdbcTemplate.queryForList("select SUBJECT from AUTH_AUDIT_EVENTS order by ID", String.class))
+            .containsExactly("user0@mail.com", "user1@mail.com", "user2@mail.com", "user3@mail.com", "late@mail.com");
+    }
+
+    private static void awaitQuietly(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
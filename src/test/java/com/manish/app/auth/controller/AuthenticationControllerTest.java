@@ -0,0 +1,114 @@
+package com.manish.app.auth.controller;
+
+import com.manish.app.audit.AuthAuditLog;
+import com.manish.app.auth.refresh.IssuedRefreshToken;
+import com.manish.app.auth.refresh.RefreshTokenStore;
+import com.manish.app.auth.service.impl.AuthenticationServiceImpl;
+import com.manish.app.auth.throttle.LoginThrottle;
+import com.manish.app.config.ApiConstants;
+import com.manish.app.handler.GlobalExceptionHandler;
+import com.manish.app.role.RoleRepository;
+import com.manish.app.security.JwtService;
+import com.manish.app.security.PasswordHashingExecutor;
+import com.manish.app.security.RevokedTokenFeed;
+import com.manish.app.user.backfill.EmailNormalizationBackfill;
+import com.manish.app.user.entity.User;
+import com.manish.app.user.mapper.UserMapper;
+import com.manish.app.user.repository.UserRepository;
+import com.manish.app.user.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AuthenticationControllerTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final UserService userService = mock(UserService.class);
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private final JwtService jwtService = mock(JwtService.class);
+    private final RefreshTokenStore refreshTokenStore = mock(RefreshTokenStore.class);
+    private PasswordHashingExecutor passwordHashingExecutor;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        this.passwordHashingExecutor = new PasswordHashingExecutor(1, 1, new SimpleMeterRegistry(), Runnable::run);
+        final AuthenticationServiceImpl authenticationService = new AuthenticationServiceImpl(
+            this.jwtService, mock(UserRepository.class), mock(RoleRepository.class), mock(UserMapper.class),
+            this.userService, this.passwordEncoder, this.passwordHashingExecutor, this.refreshTokenStore,
+            mock(RevokedTokenFeed.class), mock(EmailNormalizationBackfill.class), mock(AuthAuditLog.class),
+            mock(TransactionTemplate.class));
+        this.mockMvc = MockMvcBuilders
+            .standaloneSetup(new AuthenticationController(authenticationService, mock(LoginThrottle.class)))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+    }
+
+    @AfterEach
+    void shutdown() {
+        this.release.countDown();
+        this.passwordHashingExecutor.shutdown();
+    }
+
+    @Test
+    void loginCompletesAsynchronouslyOnceThePasswordIsChecked() throws Exception {
+        final User user = User.builder().id("u1").email("john@mail.com").password("hash").enabled(true).build();
+        when(this.userService.loadUserForLogin("john@mail.com")).thenReturn(user);
+        when(this.passwordEncoder.matches("Password123!", "hash")).thenReturn(true);
+        when(this.jwtService.generateAccessToken(user)).thenReturn("access");
+        when(this.refreshTokenStore.issue("u1", "john@mail.com"))
+            .thenReturn(new IssuedRefreshToken("refresh", "u1", "john@mail.com"));
+
+        final MvcResult result = this.mockMvc.perform(post(ApiConstants.AUTH_BASE + ApiConstants.AUTH_LOGIN)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"john@mail.com\",\"password\":\"Password123!\"}"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.access_token").value("access"))
+            .andExpect(jsonPath("$.refresh_token").value("refresh"));
+    }
+
+    @Test
+    void loginIsRefusedWithServiceUnavailableWhileTheHashingPoolIsSaturated() throws Exception {
+        when(this.userService.loadUserForLogin("john@mail.com")).thenThrow(new UsernameNotFoundException("john@mail.com"));
+        // one hash running, one queued
+        for (int i = 0; i < 2; i++) {
+            this.passwordHashingExecutor.run(() -> {
+                try {
+                    this.release.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        this.mockMvc.perform(post(ApiConstants.AUTH_BASE + ApiConstants.AUTH_LOGIN)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"john@mail.com\",\"password\":\"Password123!\"}"))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(jsonPath("$.code").value("AUTHENTICATION_BUSY"));
+        verifyNoInteractions(this.passwordEncoder);
+    }
+}
@@ -0,0 +1,109 @@
+package com.manish.app.auth.refresh;
+
+import com.manish.app.common.id.UuidV7;
+import com.manish.app.exception.BusinessException;
+import com.manish.app.exception.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenStoreTest {
+
+    private static final String CREATE_TABLE = """
+        create table REFRESH_TOKENS (TOKEN_HASH varchar(64) primary key, FAMILY_ID varchar(36) not null,
+            USER_ID binary(16) not null, USER_EMAIL varchar(255) not null, ISSUED_AT datetime(6) not null,
+            EXPIRES_AT datetime(6) not null, USED_AT datetime(6), REVOKED bit not null)""";
+
+    private RefreshTokenStore store;
+
+    @BeforeEach
+    void setUp() {
+        final RefreshTokenRepository repository = mock(RefreshTokenRepository.class);
+        when(repository.findById(anyString())).thenReturn(Optional.empty());
+        this.store = new RefreshTokenStore(repository, mock(JdbcTemplate.class), 60_000L, 500,
+            new SimpleMeterRegistry());
+    }
+
+    @Test
+    void rotationIssuesNewTokenForSameUser() {
+        final IssuedRefreshToken issued = this.store.issue("u1", "john@mail.com");
+
+        final IssuedRefreshToken rotated = this.store.rotate(issued.token());
+
+        assertThat(rotated.token()).isNotEqualTo(issued.token());
+        assertThat(rotated.userId()).isEqualTo("u1");
+        assertThat(rotated.userEmail()).isEqualTo("john@mail.com");
+    }
+
+    @Test
+    void reusedTokenRevokesWholeFamily() {
+        final IssuedRefreshToken issued = this.store.issue("u1", "john@mail.com");
+        final IssuedRefreshToken rotated = this.store.rotate(issued.token());
+
+        assertThatThrownBy(() -> this.store.rotate(issued.token()))
+            .isInstanceOfSatisfying(BusinessException.class,
+                e -> assertThat(e.getErrorCode()).isEqualTo(ErrorCode.REFRESH_TOKEN_REUSED));
+        assertThatThrownBy(() -> this.store.rotate(rotated.token()))
+            .isInstanceOfSatisfying(BusinessException.class,
+                e -> assertThat(e.getErrorCode()).isEqualTo(ErrorCode.INVALID_REFRESH_TOKEN));
+    }
+
+    @Test
+    void revokeAllInvalidatesEveryFamilyOfUser() {
+        final IssuedRefreshToken first = this.store.issue("u1", "john@mail.com");
+        final IssuedRefreshToken second = this.store.issue("u1", "john@mail.com");
+        final IssuedRefreshToken other = this.store.issue("u2", "jane@mail.com");
+
+        this.store.revokeAll("u1");
+
+        assertThatThrownBy(() -> this.store.rotate(first.token())).isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> this.store.rotate(second.token())).isInstanceOf(BusinessException.class);
+        assertThat(this.store.rotate(other.token()).userId()).isEqualTo("u2");
+    }
+
+    @Test
+    void revokeAllLeavesTokensIssuedAfterItValidWhenFlushedTogether() throws Exception {
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(
+            new DriverManagerDataSource("jdbc:h2:mem:refresh-tokens;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("drop all objects");
+        jdbcTemplate.execute(CREATE_TABLE);
+        final RefreshTokenRepository repository = mock(RefreshTokenRepository.class);
+        when(repository.findById(anyString())).thenReturn(Optional.empty());
+        final RefreshTokenStore store = new RefreshTokenStore(repository, jdbcTemplate, 60_000L, 500,
+            new SimpleMeterRegistry());
+        final String userId = UuidV7.next().toString();
+        final IssuedRefreshToken before = store.issue(userId, "john@mail.com");
+        store.flush();
+
+        // e.g. a password change followed by the next login, both before the next flush
+        store.revokeAll(userId);
+        final IssuedRefreshToken after = store.issue(userId, "john@mail.com");
+        store.flush();
+
+        assertThat(jdbcTemplate.queryForObject("select REVOKED from REFRESH_TOKENS where TOKEN_HASH = ?",
+            Boolean.class, hash(before.token()))).isTrue();
+        assertThat(jdbcTemplate.queryForObject("select REVOKED from REFRESH_TOKENS where TOKEN_HASH = ?",
+            Boolean.class, hash(after.token()))).isFalse();
+        assertThatThrownBy(() -> store.rotate(before.token())).isInstanceOf(BusinessException.class);
+        assertThat(store.rotate(after.token()).userId()).isEqualTo(userId);
+    }
+
+    private static String hash(final String token) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+            .digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
@@ -0,0 +1,81 @@
+package com.manish.app.auth.throttle;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketLimiterTest {
+
+    private static final long REFILL_PERIOD = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(-TimeUnit.HOURS.toNanos(1));
+
+    @Test
+    void allowsBurstThenRefillsOverTime() {
+        final TokenBucketLimiter limiter = new TokenBucketLimiter(3, REFILL_PERIOD, 100, this.clock::get);
+
+        assertThat(limiter.tryAcquire("10.0.0.1")).isTrue();
+        assertThat(limiter.tryAcquire("10.0.0.1")).isTrue();
+        assertThat(limiter.tryAcquire("10.0.0.1")).isTrue();
+        assertThat(limiter.tryAcquire("10.0.0.1")).isFalse();
+        assertThat(limiter.tryAcquire("10.0.0.2")).isTrue();
+
+        this.clock.addAndGet(REFILL_PERIOD);
+
+        assertThat(limiter.tryAcquire("10.0.0.1")).isTrue();
+        assertThat(limiter.tryAcquire("10.0.0.1")).isFalse();
+    }
+
+    @Test
+    void expiresIdleBucketsOnlyOnceTheyAreFull() {
+        final TokenBucketLimiter limiter = new TokenBucketLimiter(3, REFILL_PERIOD, 100, this.clock::get);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("a");
+
+        this.clock.addAndGet(REFILL_PERIOD);
+        limiter.advance();
+        assertThat(limiter.trackedKeys()).isEqualTo(1);
+
+        this.clock.addAndGet(2 * REFILL_PERIOD);
+        limiter.advance();
+        assertThat(limiter.trackedKeys()).isZero();
+    }
+
+    @Test
+    void requestRacingTheExpiryOfItsBucketIsChargedOnTheNewOne() {
+        final AtomicBoolean expireOnNextClockRead = new AtomicBoolean();
+        final AtomicReference<TokenBucketLimiter> limiter = new AtomicReference<>();
+        limiter.set(new TokenBucketLimiter(1, REFILL_PERIOD, 100, () -> {
+            if (expireOnNextClockRead.compareAndSet(true, false)) {
+                // the bucket has already been fetched by the request
+                limiter.get().advance();
+            }
+            return this.clock.get();
+        }));
+        limiter.get().tryAcquire("a");
+        this.clock.addAndGet(2 * REFILL_PERIOD);
+
+        expireOnNextClockRead.set(true);
+        assertThat(limiter.get().tryAcquire("a")).isTrue();
+
+        assertThat(limiter.get().trackedKeys()).isEqualTo(1);
+        assertThat(limiter.get().tryAcquire("a")).isFalse();
+    }
+
+    @Test
+    void keysBeyondTheBoundShareOverflowBuckets() {
+        final TokenBucketLimiter limiter = new TokenBucketLimiter(1, REFILL_PERIOD, 2, this.clock::get);
+
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("spray-" + i + "@mail.com");
+        }
+
+        assertThat(limiter.trackedKeys()).isEqualTo(2);
+        assertThat(limiter.tryAcquire("spray-9999@mail.com")).isFalse();
+    }
+}
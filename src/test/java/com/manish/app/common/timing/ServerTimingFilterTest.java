@@ -0,0 +1,55 @@
+package com.manish.app.common.timing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServerTimingFilterTest {
+
+    private final ServerTimingFilter filter = new ServerTimingFilter();
+
+    @Test
+    void sendsPhasesRecordedBeforeTheBodyIsWritten() throws Exception {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            this.filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/users/me"), response,
+                (req, res) -> {
+                    ServerTiming.record(ServerTiming.Phase.JWT, TimeUnit.MILLISECONDS.toNanos(2));
+                    // a phase measured on another thread is reported if the task was propagated
+                    CompletableFuture.supplyAsync(ServerTiming.propagate(() -> {
+                        ServerTiming.record(ServerTiming.Phase.PASSWORD, TimeUnit.MILLISECONDS.toNanos(250));
+                        return null;
+                    }), pool).join();
+                    res.getWriter().write("{}");
+                    // too late, the header has been set when the body was written
+                    ServerTiming.record(ServerTiming.Phase.DB, TimeUnit.MILLISECONDS.toNanos(5));
+                });
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(response.getHeader(ServerTimingFilter.HEADER))
+            .startsWith("jwt;dur=2.00;desc=\"Token verification\", pwd;dur=250.00;desc=\"Password hashing\", total;dur=")
+            .doesNotContain("db;");
+        assertThat(ServerTiming.start()).as("no request timed after the filter").isZero();
+    }
+
+    @Test
+    void sendsTotalForEmptyResponses() throws Exception {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        this.filter.doFilter(new MockHttpServletRequest("DELETE", "/api/v1/users/me"), response,
+            new MockFilterChain());
+
+        assertThat(response.getHeader(ServerTimingFilter.HEADER)).startsWith("total;dur=");
+    }
+}
@@ -0,0 +1,48 @@
+package com.manish.app.migration;
+
+import com.manish.app.common.id.BinaryUuid;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BaselineMigrationTest {
+
+    @Test
+    void upgradesADatabaseCreatedBeforeMigrations() {
+        final DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:baseline-migration;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("drop all objects");
+        // the schema the original application left behind, without any Flyway history
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__baseline_schema.sql")).execute(dataSource);
+        final String userId = UUID.randomUUID().toString();
+        jdbcTemplate.update("""
+            insert into USERS (ID, FIRST_NAME, LAST_NAME, EMAIL, PHONE_NUMBER, PASSWORD, IS_ENABLED, IS_ACCOUNT_LOCKED,
+                IS_CREDENTIAL_EXPIRED, IS_EMAIL_VERIFIED, IS_PHONE_VERIFIED, CREATED_DATE, MARKED_FOR_DELETION)
+            values (?, 'John', 'Doe', 'John@Mail.com', '+4912345', 'secret', true, false, false, false, false,
+                current_timestamp, false)""", userId);
+
+        Flyway.configure()
+            .dataSource(dataSource)
+            .locations("classpath:db/migration", "classpath:com/manish/app/migration")
+            .baselineOnMigrate(true)
+            .baselineVersion("1")
+            .load()
+            .migrate();
+
+        assertThat(jdbcTemplate.queryForMap("select TOKEN_VERSION, EMAIL_NORMALIZED from USERS where ID = ?",
+            BinaryUuid.toBytes(userId)))
+            .containsEntry("TOKEN_VERSION", 0)
+            .containsEntry("EMAIL_NORMALIZED", null);
+        for (final String table : new String[]{"REFRESH_TOKENS", "SCHEDULER_LOCKS", "SCHEDULER_NODES", "AUTH_AUDIT_EVENTS"}) {
+            assertThat(jdbcTemplate.queryForObject("select count(*) from " + table, Long.class)).isZero();
+        }
+    }
+}
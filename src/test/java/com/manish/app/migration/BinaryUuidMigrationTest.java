@@ -0,0 +1,55 @@
+package com.manish.app.migration;
+
+import com.manish.app.common.id.BinaryUuid;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryUuidMigrationTest {
+
+    @Test
+    void convertsExistingStringIdsAndKeepsReferences() {
+        final DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:uuid-migration;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("drop all objects");
+        flyway(dataSource).target("2").load().migrate();
+        final String userId = UUID.randomUUID().toString();
+        final String roleId = UUID.randomUUID().toString();
+        jdbcTemplate.update("""
+            insert into USERS (ID, FIRST_NAME, LAST_NAME, EMAIL, PHONE_NUMBER, PASSWORD, IS_ENABLED, IS_ACCOUNT_LOCKED,
+                IS_CREDENTIAL_EXPIRED, IS_EMAIL_VERIFIED, IS_PHONE_VERIFIED, CREATED_DATE, MARKED_FOR_DELETION, TOKEN_VERSION)
+            values (?, 'John', 'Doe', 'john@mail.com', '+4912345', 'secret', true, false, false, false, false,
+                current_timestamp, false, 0)""", userId);
+        jdbcTemplate.update("insert into ROLES (ID, NAME, CREATED_DATE, CREATED_BY) values (?, 'ROLE_USER', current_timestamp, 'test')",
+            roleId);
+        jdbcTemplate.update("insert into USERS_ROLES values (?, ?)", userId, roleId);
+
+        flyway(dataSource).load().migrate();
+
+        final byte[] binaryUserId = BinaryUuid.toBytes(userId);
+        assertThat(jdbcTemplate.queryForObject("select EMAIL from USERS where ID = ?", String.class, binaryUserId))
+            .isEqualTo("john@mail.com");
+        assertThat(jdbcTemplate.queryForObject("select count(*) from USERS_ROLES where USERS_ID = ? and ROLES_ID = ?",
+            Long.class, binaryUserId, BinaryUuid.toBytes(roleId))).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("select ROLE_MASK from USERS where ID = ?", Long.class, binaryUserId))
+            .isEqualTo(1L);
+        // the foreign keys are back in place
+        assertThatThrownBy(() -> jdbcTemplate.update("insert into USERS_ROLES values (?, ?)",
+            BinaryUuid.toBytes(UUID.randomUUID().toString()), BinaryUuid.toBytes(roleId)))
+            .hasMessageContaining("FK_USERS_ROLES_USER");
+    }
+
+    private static FluentConfiguration flyway(final DataSource dataSource) {
+        return Flyway.configure()
+            .dataSource(dataSource)
+            .locations("classpath:db/migration", "classpath:com/manish/app/migration");
+    }
+}
@@ -0,0 +1,136 @@
+package com.manish.app.migration;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Table;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.core.support.DefaultRepositoryMetadata;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.util.ReflectionUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every query method of every repository must start its predicate with a column that leads an
+ * index of the migrated schema, otherwise it scans the table.
+ */
+@DataJpaTest
+@TestPropertySource(properties = {
+    "spring.jpa.database=H2",
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+class RepositoryQueryIndexTest {
+
+    // scans accepted on purpose, with the reason
+    private static final Map<String, String> EXEMPTIONS = Map.of(
+        "UserRepository.existsByEmailIgnoreCase", "fallback while the email backfill runs",
+        "UserRepository.findByEmailIgnoreCase", "fallback while the email backfill runs",
+        "RoleRepository.nextBitIndex", "max over UK_ROLES_BIT_INDEX, only when roles are seeded"
+    );
+    private static final Pattern QUERY_WHERE = Pattern.compile("\\bwhere\\s+\\w+\\.(\\w+)", Pattern.CASE_INSENSITIVE);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void everyRepositoryQueryHasAnIndex() throws Exception {
+        final List<String> unindexed = new ArrayList<>();
+        int checked = 0;
+        for (final Class<?> repository : repositories()) {
+            final Class<?> domainType = new DefaultRepositoryMetadata(repository).getDomainType();
+            final Set<String> leadingColumns = leadingIndexColumns(domainType.getAnnotation(Table.class).name());
+            for (final Method method : repository.getDeclaredMethods()) {
+                final String name = repository.getSimpleName() + "." + method.getName();
+                if (EXEMPTIONS.containsKey(name)) {
+                    continue;
+                }
+                checked++;
+                if (!isIndexed(method, domainType, leadingColumns)) {
+                    unindexed.add(name);
+                }
+            }
+        }
+
+        assertThat(checked).isPositive();
+        assertThat(unindexed).as("query methods without a matching index").isEmpty();
+    }
+
+    private static boolean isIndexed(final Method method, final Class<?> domainType, final Set<String> leadingColumns) {
+        final Query query = method.getAnnotation(Query.class);
+        if (query != null) {
+            final Matcher matcher = QUERY_WHERE.matcher(query.value());
+            return matcher.find() && leadingColumns.contains(column(domainType, matcher.group(1)));
+        }
+        // every alternative of the predicate needs an index on one of its conditions
+        for (final PartTree.OrPart alternative : new PartTree(method.getName(), domainType)) {
+            boolean indexed = false;
+            for (final Part part : alternative) {
+                indexed |= part.shouldIgnoreCase() == Part.IgnoreCaseType.NEVER
+                    && leadingColumns.contains(column(domainType, part.getProperty().getSegment()));
+            }
+            if (!indexed) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String column(final Class<?> domainType, final String property) {
+        final Field field = ReflectionUtils.findField(domainType, property);
+        final Column column = field == null ? null : field.getAnnotation(Column.class);
+        final String name = column != null && !column.name().isEmpty()
+            ? column.name()
+            : property.replaceAll("([a-z])([A-Z])", "$1_$2");
+        return name.toUpperCase(Locale.ROOT);
+    }
+
+    private Set<String> leadingIndexColumns(final String table) throws Exception {
+        final Set<String> columns = new HashSet<>();
+        try (Connection connection = this.dataSource.getConnection();
+             ResultSet rs = connection.getMetaData().getIndexInfo(null, null, table, false, false)) {
+            while (rs.next()) {
+                if (rs.getShort("ORDINAL_POSITION") == 1) {
+                    columns.add(rs.getString("COLUMN_NAME").toUpperCase(Locale.ROOT));
+                }
+            }
+        }
+        return columns;
+    }
+
+    private static List<Class<?>> repositories() throws ClassNotFoundException {
+        final ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(final AnnotatedBeanDefinition definition) {
+                return definition.getMetadata().isInterface();
+            }
+        };
+        scanner.addIncludeFilter(new AssignableTypeFilter(Repository.class));
+        final List<Class<?>> repositories = new ArrayList<>();
+        for (final var candidate : scanner.findCandidateComponents("com.manish.app")) {
+            repositories.add(Class.forName(candidate.getBeanClassName()));
+        }
+        return repositories;
+    }
+}
@@ -0,0 +1,44 @@
+package com.manish.app.role;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@TestPropertySource(properties = {
+    "spring.jpa.database=H2",
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RoleCacheTest {
+
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void repeatedLookupsByNameAreServedFromTheCache() {
+        // the application seeds the roles on startup
+        this.roleRepository.findByName("ROLE_USER").orElseThrow();
+        final Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        final long statements = statistics.getPrepareStatementCount();
+        final long queryHits = statistics.getQueryCacheHitCount();
+
+        // every call runs in a session of its own, only the shared cache can answer it
+        for (int i = 0; i < 3; i++) {
+            assertThat(this.roleRepository.findByName("ROLE_USER")).isPresent();
+        }
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+        assertThat(statistics.getQueryCacheHitCount() - queryHits).isEqualTo(3);
+    }
+}
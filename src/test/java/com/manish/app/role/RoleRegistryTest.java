@@ -0,0 +1,39 @@
+package com.manish.app.role;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RoleRegistryTest {
+
+    private static final Role USER = Role.builder().name("ROLE_USER").bitIndex(0).build();
+    private static final Role ADMIN = Role.builder().name("ROLE_ADMIN").bitIndex(3).build();
+
+    @Test
+    void resolvesInternedAuthoritiesFromTheMask() {
+        RoleRegistry.load(List.of(USER, ADMIN));
+        final long mask = RoleRegistry.mask(List.of(USER, ADMIN));
+
+        final List<GrantedAuthority> authorities = RoleRegistry.authorities(mask);
+
+        assertThat(mask).isEqualTo(0b1001L);
+        assertThat(authorities).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_USER", "ROLE_ADMIN");
+        assertThat(RoleRegistry.authorities(mask)).isSameAs(authorities);
+        assertThat(RoleRegistry.authority("ROLE_ADMIN")).isSameAs(authorities.get(1));
+        assertThat(RoleRegistry.hasAuthority(mask, "ROLE_ADMIN")).isTrue();
+        assertThat(RoleRegistry.hasAuthority(RoleRegistry.mask(List.of(USER)), "ROLE_ADMIN")).isFalse();
+        // bits of roles the catalog does not know grant nothing
+        assertThat(RoleRegistry.authorities(1L << 40)).isEmpty();
+    }
+
+    @Test
+    void rejectsRolesSharingABit() {
+        final Role other = Role.builder().name("ROLE_OTHER").bitIndex(0).build();
+
+        assertThatThrownBy(() -> RoleRegistry.load(List.of(USER, other))).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,133 @@
+package com.manish.app.scheduling;
+
+import com.manish.app.common.id.BinaryUuid;
+import com.manish.app.common.id.UuidV7;
+import com.manish.app.user.purge.PurgeReport;
+import com.manish.app.user.purge.UserPurgeEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Several application contexts in one JVM, each standing in for a node, sharing one embedded
+ * database in MySQL mode.
+ */
+class ClusteredPurgeTest {
+
+    private static final String URL = "jdbc:h2:mem:cluster;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final byte[] ROLE_ID = BinaryUuid.toBytes(UuidV7.next().toString());
+
+    private final List<AnnotationConfigApplicationContext> nodes = new ArrayList<>();
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void createSchema() {
+        this.jdbcTemplate = new JdbcTemplate(dataSource());
+        this.jdbcTemplate.execute("drop all objects");
+        this.jdbcTemplate.execute("""
+            create table USERS (ID binary(16) primary key, EMAIL varchar(255) not null,
+                MARKED_FOR_DELETION boolean, MARKED_AT timestamp)""");
+        this.jdbcTemplate.execute("create table USERS_ROLES (USERS_ID binary(16) not null, ROLES_ID binary(16) not null)");
+        this.jdbcTemplate.execute("create table REFRESH_TOKENS (TOKEN_HASH varchar(64) primary key, USER_ID binary(16) not null)");
+        this.jdbcTemplate.execute("""
+            create table SCHEDULER_LOCKS (NAME varchar(64) primary key, LOCKED_BY varchar(255) not null,
+                LOCKED_AT timestamp not null, LOCKED_UNTIL timestamp not null)""");
+        this.jdbcTemplate.execute("create table SCHEDULER_NODES (NODE_ID varchar(128) primary key, HEARTBEAT_AT timestamp not null)");
+    }
+
+    @AfterEach
+    void stopNodes() {
+        this.nodes.forEach(AnnotationConfigApplicationContext::close);
+    }
+
+    @Test
+    void leaseIsHeldByOneNodeAtATime() {
+        final JobLock first = startNode("node-1").getBean(JobLock.class);
+        final JobLock second = startNode("node-2").getBean(JobLock.class);
+
+        assertThat(first.tryAcquire("job", Duration.ofMinutes(1))).isTrue();
+        assertThat(second.tryAcquire("job", Duration.ofMinutes(1))).isFalse();
+
+        first.release("job");
+
+        assertThat(second.tryAcquire("job", Duration.ofMinutes(1))).isTrue();
+        assertThat(first.runExclusively("job", Duration.ofMinutes(1), () -> {
+        })).isFalse();
+    }
+
+    @Test
+    void partitionedNodesPurgeDisjointShares() {
+        final Timestamp markedAt = Timestamp.valueOf(LocalDateTime.now().minusDays(2));
+        for (int i = 0; i < 300; i++) {
+            insertUser(true, markedAt);
+        }
+        for (int i = 0; i < 10; i++) {
+            insertUser(false, null);
+        }
+        for (int i = 1; i <= 3; i++) {
+            startNode("node-" + i);
+        }
+
+        long purged = 0;
+        for (final AnnotationConfigApplicationContext node : this.nodes) {
+            final IdPartition partition = node.getBean(ClusterMembership.class).ownPartition();
+            final PurgeReport report = node.getBean(UserPurgeEngine.class)
+                .purgeMarkedBefore(LocalDateTime.now().minusDays(1), partition);
+            assertThat(report.users()).isPositive().isLessThan(300);
+            purged += report.users();
+        }
+
+        assertThat(purged).isEqualTo(300);
+        assertThat(count("USERS")).isEqualTo(10);
+        assertThat(count("USERS_ROLES")).isEqualTo(10);
+        assertThat(count("REFRESH_TOKENS")).isEqualTo(10);
+    }
+
+    private void insertUser(final boolean marked, final Timestamp markedAt) {
+        final UUID id = UuidV7.next();
+        final byte[] binaryId = BinaryUuid.toBytes(id.toString());
+        this.jdbcTemplate.update("insert into USERS values (?, ?, ?, ?)", binaryId, id + "@mail.com", marked, markedAt);
+        this.jdbcTemplate.update("insert into USERS_ROLES values (?, ?)", binaryId, ROLE_ID);
+        this.jdbcTemplate.update("insert into REFRESH_TOKENS values (?, ?)", UUID.randomUUID().toString(), binaryId);
+    }
+
+    private long count(final String table) {
+        return this.jdbcTemplate.queryForObject("select count(*) from " + table, Long.class);
+    }
+
+    private AnnotationConfigApplicationContext startNode(final String nodeId) {
+        final AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        final DataSource dataSource = dataSource();
+        final JdbcTemplate nodeJdbc = new JdbcTemplate(dataSource);
+        final NodeIdentity identity = new NodeIdentity(nodeId);
+        context.registerBean(JdbcTemplate.class, () -> nodeJdbc);
+        context.registerBean(NodeIdentity.class, () -> identity);
+        context.registerBean(JobLock.class, () -> new JobLock(nodeJdbc, identity));
+        context.registerBean(ClusterMembership.class,
+            () -> new ClusterMembership(nodeJdbc, identity, Duration.ofSeconds(30)));
+        context.registerBean(UserPurgeEngine.class, () -> new UserPurgeEngine(nodeJdbc,
+            new DataSourceTransactionManager(dataSource), new ConcurrentMapCacheManager("userDetails"), 40));
+        context.refresh();
+        this.nodes.add(context);
+        return context;
+    }
+
+    private static DataSource dataSource() {
+        return new DriverManagerDataSource(URL, "sa", "");
+    }
+}
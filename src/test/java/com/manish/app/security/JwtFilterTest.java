@@ -0,0 +1,165 @@
+package com.manish.app.security;
+
+import com.manish.app.common.id.UuidV7;
+import com.manish.app.role.Role;
+import com.manish.app.role.RoleRegistry;
+import com.manish.app.user.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtFilterTest {
+
+    private static final long ACCESS_TOKEN_EXPIRATION = 900_000L;
+
+    @TempDir
+    Path directory;
+
+    private JwtService jwtService;
+    private JdbcTemplate jdbcTemplate;
+    private User user;
+    private final AtomicInteger userLoads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        writeKeyPair();
+        final JwtProperties properties = new JwtProperties();
+        properties.setAlgorithm("EC");
+        properties.setKeyDirectory(this.directory.toString());
+        final KeyUtils keyUtils = new KeyUtils(properties, event -> {
+        });
+        keyUtils.init();
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        this.jwtService = new JwtService(keyUtils, new VerifiedClaimsCache(100, meterRegistry), meterRegistry);
+        ReflectionTestUtils.setField(this.jwtService, "accessTokenExpiration", ACCESS_TOKEN_EXPIRATION);
+        ReflectionTestUtils.setField(this.jwtService, "statelessPrincipal", true);
+
+        final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:jwt-filter;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.execute("drop all objects");
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V6__token_version_changes.sql"))
+            .execute(dataSource);
+
+        final Set<Role> roles = Set.of(Role.builder().name("ROLE_USER").bitIndex(0).build());
+        RoleRegistry.load(roles);
+        this.user = User.builder()
+            .id(UuidV7.next().toString())
+            .email("john@mail.com")
+            .password("{noop}secret")
+            .enabled(true)
+            .roles(roles)
+            .roleMask(RoleRegistry.mask(roles))
+            .build();
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void statelessTokenAuthenticatesWithoutLoadingTheUser() throws Exception {
+        final JwtFilter filter = filter(tracker());
+
+        final Authentication authentication = authenticate(filter, this.jwtService.generateAccessToken(this.user));
+
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getPrincipal()).isInstanceOf(TokenPrincipal.class);
+        assertThat(this.userLoads).hasValue(0);
+    }
+
+    @Test
+    void tokenRevokedOnAnotherNodeIsRefusedOnceThisNodeHasPolled() throws Exception {
+        final PrincipalVersionTracker thisNode = tracker();
+        final JwtFilter filter = filter(thisNode);
+        final String token = this.jwtService.generateAccessToken(this.user);
+
+        // e.g. a password change handled by another node
+        this.user.bumpTokenVersion();
+        tracker().publishVersion(this.user.getId(), this.user.getTokenVersion());
+
+        assertThat(authenticate(filter, token)).as("accepted until the next poll").isNotNull();
+        thisNode.poll();
+        assertThat(authenticate(filter, token)).isNull();
+        assertThat(this.userLoads).hasValue(1);
+        assertThat(authenticate(filter, this.jwtService.generateAccessToken(this.user))).isNotNull();
+    }
+
+    @Test
+    void nodeStartedAfterARevocationRefusesTheOldToken() throws Exception {
+        final String token = this.jwtService.generateAccessToken(this.user);
+        this.user.bumpTokenVersion();
+        tracker().publishVersion(this.user.getId(), this.user.getTokenVersion());
+
+        final PrincipalVersionTracker restarted = tracker();
+        restarted.load();
+
+        assertThat(authenticate(filter(restarted), token)).isNull();
+    }
+
+    private PrincipalVersionTracker tracker() {
+        return new PrincipalVersionTracker(this.jdbcTemplate, ACCESS_TOKEN_EXPIRATION, true);
+    }
+
+    private JwtFilter filter(final PrincipalVersionTracker tracker) throws Exception {
+        final TokenDenylist denylist = new TokenDenylist(
+            Files.createTempFile(this.directory, "jwt-denylist", ".bin").toString(), 100);
+        denylist.init();
+        return new JwtFilter(this.jwtService, username -> {
+            this.userLoads.incrementAndGet();
+            return this.user;
+        }, tracker, denylist, new SimpleMeterRegistry());
+    }
+
+    private static Authentication authenticate(final JwtFilter filter, final String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/me");
+        request.setServletPath("/api/v1/users/me");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        final Authentication[] authentication = new Authentication[1];
+        final FilterChain chain = (req, res) ->
+            authentication[0] = SecurityContextHolder.getContext().getAuthentication();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return authentication[0];
+    }
+
+    private void writeKeyPair() throws Exception {
+        final KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(256);
+        final KeyPair keyPair = generator.generateKeyPair();
+        Files.writeString(this.directory.resolve("k1" + KeyUtils.PRIVATE_KEY_SUFFIX),
+            pem("PRIVATE KEY", keyPair.getPrivate().getEncoded()));
+        Files.writeString(this.directory.resolve("k1" + KeyUtils.PUBLIC_KEY_SUFFIX),
+            pem("PUBLIC KEY", keyPair.getPublic().getEncoded()));
+    }
+
+    private static String pem(final String type, final byte[] encoded) {
+        return "-----BEGIN " + type + "-----\n"
+            + Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(encoded)
+            + "\n-----END " + type + "-----\n";
+    }
+}
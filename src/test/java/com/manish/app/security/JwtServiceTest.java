@@ -0,0 +1,75 @@
+package com.manish.app.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtServiceTest {
+
+    @TempDir
+    Path keyDirectory;
+
+    @ParameterizedTest
+    @CsvSource({
+        "RSA, 2048, RS256",
+        "EC, 256, ES256",
+        "Ed25519, 0, EdDSA"
+    })
+    void signsAndVerifiesWithEveryAlgorithm(final String algorithm, final int keySize,
+        final String expectedJwsAlgorithm) throws Exception {
+        writeKeyPair(algorithm, keySize);
+        final JwtProperties properties = new JwtProperties();
+        properties.setAlgorithm(algorithm);
+        properties.setKeyDirectory(this.keyDirectory.toString());
+        final KeyUtils keyUtils = new KeyUtils(properties, event -> {
+        });
+        keyUtils.init();
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final JwtService jwtService = new JwtService(keyUtils,
+            new VerifiedClaimsCache(100, meterRegistry), meterRegistry);
+        ReflectionTestUtils.setField(jwtService, "accessTokenExpiration", 60_000L);
+
+        final String token = jwtService.generateAccessToken("john@mail.com");
+
+        assertThat(jwtService.isTokenValid(token, "john@mail.com")).isTrue();
+        assertThat(header(token))
+            .contains("\"alg\":\"" + expectedJwsAlgorithm + "\"")
+            .contains("\"kid\":\"k1\"");
+        assertThat(meterRegistry.get("auth.jwt.sign").tag("algorithm", algorithm).timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.jwt.verify").tag("algorithm", algorithm).timer().count()).isEqualTo(1);
+    }
+
+    private void writeKeyPair(final String algorithm, final int keySize) throws Exception {
+        final KeyPairGenerator generator = KeyPairGenerator.getInstance(algorithm);
+        if (keySize > 0) {
+            generator.initialize(keySize);
+        }
+        final KeyPair keyPair = generator.generateKeyPair();
+        Files.writeString(this.keyDirectory.resolve("k1" + KeyUtils.PRIVATE_KEY_SUFFIX),
+            pem("PRIVATE KEY", keyPair.getPrivate().getEncoded()));
+        Files.writeString(this.keyDirectory.resolve("k1" + KeyUtils.PUBLIC_KEY_SUFFIX),
+            pem("PUBLIC KEY", keyPair.getPublic().getEncoded()));
+    }
+
+    private static String header(final String token) {
+        final String encoded = token.substring(0, token.indexOf('.'));
+        return new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+    }
+
+    private static String pem(final String type, final byte[] encoded) {
+        return "-----BEGIN " + type + "-----\n"
+            + Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(encoded)
+            + "\n-----END " + type + "-----\n";
+    }
+}
@@ -0,0 +1,90 @@
+package com.manish.app.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeyUtilsTest {
+
+    @TempDir
+    Path keyDirectory;
+
+    private final List<Object> events = new ArrayList<>();
+    private KeyUtils keyUtils;
+
+    @BeforeEach
+    void setUp() {
+        final JwtProperties properties = new JwtProperties();
+        properties.setKeyDirectory(this.keyDirectory.toString());
+        properties.setWatchKeyDirectory(false);
+        this.keyUtils = new KeyUtils(properties, this.events::add);
+    }
+
+    @Test
+    void signsWithGreatestKeyIdAndVerifiesWithAll() throws Exception {
+        writeKeyPair("2026-01");
+        writeKeyPair("2026-02");
+
+        this.keyUtils.init();
+
+        final JwtKeyRing keyRing = this.keyUtils.getKeyRing();
+        assertThat(keyRing.getSigningKeyId()).isEqualTo("2026-02");
+        assertThat(keyRing.getKeyIds()).containsExactlyInAnyOrder("2026-01", "2026-02");
+    }
+
+    @Test
+    void reloadPublishesNewKeyRingAndReportsRemovedKeys() throws Exception {
+        writeKeyPair("2026-01");
+        this.keyUtils.init();
+
+        writeKeyPair("2026-02");
+        Files.delete(this.keyDirectory.resolve("2026-01" + KeyUtils.PUBLIC_KEY_SUFFIX));
+        this.keyUtils.reloadKeys();
+
+        assertThat(this.keyUtils.getKeyRing().getSigningKeyId()).isEqualTo("2026-02");
+        assertThat(this.events).singleElement()
+            .isInstanceOfSatisfying(KeyRingRotatedEvent.class,
+                event -> assertThat(event.removedKeyIds()).containsExactly("2026-01"));
+    }
+
+    @Test
+    void failedReloadKeepsCurrentKeyRing() throws Exception {
+        writeKeyPair("2026-01");
+        this.keyUtils.init();
+        final JwtKeyRing current = this.keyUtils.getKeyRing();
+
+        Files.writeString(this.keyDirectory.resolve("2026-02" + KeyUtils.PUBLIC_KEY_SUFFIX), "garbage");
+
+        assertThatThrownBy(this.keyUtils::reloadKeys).isInstanceOf(IllegalStateException.class);
+        assertThat(this.keyUtils.getKeyRing()).isSameAs(current);
+    }
+
+    private void writeKeyPair(final String keyId) throws IOException, NoSuchAlgorithmException {
+        final KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        final KeyPair keyPair = generator.generateKeyPair();
+        Files.writeString(this.keyDirectory.resolve(keyId + KeyUtils.PRIVATE_KEY_SUFFIX),
+            pem("PRIVATE KEY", keyPair.getPrivate().getEncoded()));
+        Files.writeString(this.keyDirectory.resolve(keyId + KeyUtils.PUBLIC_KEY_SUFFIX),
+            pem("PUBLIC KEY", keyPair.getPublic().getEncoded()));
+    }
+
+    private static String pem(final String type, final byte[] encoded) {
+        return "-----BEGIN " + type + "-----\n"
+            + Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(encoded)
+            + "\n-----END " + type + "-----\n";
+    }
+}
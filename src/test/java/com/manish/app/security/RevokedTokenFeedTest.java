@@ -0,0 +1,71 @@
+package com.manish.app.security;
+
+import com.manish.app.common.id.BinaryUuid;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RevokedTokenFeedTest {
+
+    @TempDir
+    Path directory;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:revoked-tokens;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.execute("drop all objects");
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V7__revoked_access_tokens.sql"))
+            .execute(dataSource);
+    }
+
+    @Test
+    void revocationReachesOtherNodesOnTheirNextPoll() {
+        final RevokedTokenFeed node1 = new RevokedTokenFeed(denylist("node1"), this.jdbcTemplate);
+        final TokenDenylist node2Denylist = denylist("node2");
+        final RevokedTokenFeed node2 = new RevokedTokenFeed(node2Denylist, this.jdbcTemplate);
+        node1.load();
+        node2.load();
+        final String tokenId = UUID.randomUUID().toString();
+
+        node1.revoke(tokenId, System.currentTimeMillis() + 60_000L);
+
+        assertThat(node2Denylist.isRevoked(tokenId)).isFalse();
+        node2.poll();
+        assertThat(node2Denylist.isRevoked(tokenId)).isTrue();
+    }
+
+    @Test
+    void startingNodeReadsUnexpiredRevocations() {
+        final RevokedTokenFeed node1 = new RevokedTokenFeed(denylist("node1"), this.jdbcTemplate);
+        final String revoked = UUID.randomUUID().toString();
+        node1.revoke(revoked, System.currentTimeMillis() + 60_000L);
+        this.jdbcTemplate.update("insert into REVOKED_ACCESS_TOKENS values (?, ?, current_timestamp(6))",
+            BinaryUuid.toBytes(UUID.randomUUID().toString()), new Timestamp(System.currentTimeMillis() - 1_000L));
+
+        final TokenDenylist node2Denylist = denylist("node2");
+        new RevokedTokenFeed(node2Denylist, this.jdbcTemplate).load();
+
+        assertThat(node2Denylist.isRevoked(revoked)).isTrue();
+        assertThat(node2Denylist.size()).isEqualTo(1);
+    }
+
+    private TokenDenylist denylist(final String node) {
+        final TokenDenylist denylist = new TokenDenylist(this.directory.resolve(node + ".bin").toString(), 100);
+        denylist.init();
+        return denylist;
+    }
+}
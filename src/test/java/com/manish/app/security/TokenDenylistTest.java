@@ -0,0 +1,51 @@
+package com.manish.app.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenDenylistTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void revocationsSurviveReopening() throws Exception {
+        final String file = this.directory.resolve("denylist.bin").toString();
+        final String revoked = UUID.randomUUID().toString();
+        final TokenDenylist denylist = new TokenDenylist(file, 100);
+        denylist.init();
+        denylist.revoke(revoked, System.currentTimeMillis() + 60_000L);
+        denylist.close();
+
+        final TokenDenylist reopened = new TokenDenylist(file, 100);
+        reopened.init();
+
+        assertThat(reopened.isRevoked(revoked)).isTrue();
+        assertThat(reopened.isRevoked(UUID.randomUUID().toString())).isFalse();
+        reopened.close();
+    }
+
+    @Test
+    void growsBeyondInitialFileAndDropsExpiredEntries() throws Exception {
+        final TokenDenylist denylist = new TokenDenylist(this.directory.resolve("denylist.bin").toString(), 100);
+        denylist.init();
+        final long now = System.currentTimeMillis();
+        for (int i = 0; i < 5000; i++) {
+            denylist.revoke(UUID.randomUUID().toString(), now + 60_000L);
+        }
+        final String expiring = UUID.randomUUID().toString();
+        denylist.revoke(expiring, now + 50L);
+        Thread.sleep(100);
+
+        denylist.removeExpired();
+
+        assertThat(denylist.isRevoked(expiring)).isFalse();
+        assertThat(denylist.size()).isEqualTo(5000);
+        denylist.close();
+    }
+}
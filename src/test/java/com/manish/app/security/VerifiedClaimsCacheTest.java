@@ -0,0 +1,67 @@
+package com.manish.app.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VerifiedClaimsCacheTest {
+
+    private final VerifiedClaimsCache cache = new VerifiedClaimsCache(100, new SimpleMeterRegistry());
+
+    @Test
+    void verifiesTokenOnlyOnce() {
+        final AtomicInteger verifications = new AtomicInteger();
+        final Claims claims = claimsExpiringIn(60_000);
+
+        for (int i = 0; i < 3; i++) {
+            this.cache.get("token", token -> {
+                verifications.incrementAndGet();
+                return claims;
+            });
+        }
+
+        assertThat(verifications).hasValue(1);
+        assertThat(this.cache.stats().hitCount()).isEqualTo(2);
+        assertThat(this.cache.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void doesNotServeExpiredClaims() {
+        final AtomicInteger verifications = new AtomicInteger();
+        final Claims claims = claimsExpiringIn(-1_000);
+
+        this.cache.get("expired", token -> {
+            verifications.incrementAndGet();
+            return claims;
+        });
+        this.cache.get("expired", token -> {
+            verifications.incrementAndGet();
+            return claims;
+        });
+
+        assertThat(verifications).hasValue(2);
+    }
+
+    @Test
+    void doesNotCacheVerificationFailures() {
+        assertThatThrownBy(() -> this.cache.get("bad", token -> {
+            throw new IllegalArgumentException("bad signature");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(this.cache.estimatedSize()).isZero();
+    }
+
+    private static Claims claimsExpiringIn(final long millis) {
+        return Jwts.claims()
+            .subject("john@mail.com")
+            .expiration(new Date(System.currentTimeMillis() + millis))
+            .build();
+    }
+}
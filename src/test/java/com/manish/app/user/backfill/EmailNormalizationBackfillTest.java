@@ -0,0 +1,63 @@
+package com.manish.app.user.backfill;
+
+import com.manish.app.common.id.BinaryUuid;
+import com.manish.app.common.id.UuidV7;
+import com.manish.app.scheduling.JobLock;
+import com.manish.app.scheduling.NodeIdentity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailNormalizationBackfillTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private EmailNormalizationBackfill backfill;
+
+    @BeforeEach
+    void setUp() {
+        final DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:backfill;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.execute("drop all objects");
+        this.jdbcTemplate.execute("""
+            create table USERS (ID binary(16) primary key, EMAIL varchar(255) not null unique,
+                EMAIL_NORMALIZED varchar(255) unique)""");
+        this.jdbcTemplate.execute("""
+            create table SCHEDULER_LOCKS (NAME varchar(64) primary key, LOCKED_BY varchar(255) not null,
+                LOCKED_AT timestamp not null, LOCKED_UNTIL timestamp not null)""");
+        this.backfill = new EmailNormalizationBackfill(this.jdbcTemplate, new DataSourceTransactionManager(dataSource),
+            new JobLock(this.jdbcTemplate, new NodeIdentity("node-1")), 3, 0, Duration.ofMinutes(1));
+    }
+
+    private static byte[] newId() {
+        return BinaryUuid.toBytes(UuidV7.next().toString());
+    }
+
+    @Test
+    void fillsEveryRowInBatchesAndSkipsCaseConflicts() {
+        for (int i = 0; i < 10; i++) {
+            this.jdbcTemplate.update("insert into USERS (ID, EMAIL) values (?, ?)", newId(), "John" + i + "@Mail.com");
+        }
+        this.jdbcTemplate.update("insert into USERS values (?, 'jane@mail.com', 'jane@mail.com')", newId());
+        this.jdbcTemplate.update("insert into USERS (ID, EMAIL) values (?, 'JANE@mail.com')", newId());
+
+        this.backfill.run();
+
+        assertThat(this.jdbcTemplate.queryForObject("select EMAIL_NORMALIZED from USERS where EMAIL = 'John7@Mail.com'",
+            String.class)).isEqualTo("john7@mail.com");
+        assertThat(this.jdbcTemplate.queryForObject("select count(*) from USERS where EMAIL_NORMALIZED is null", Long.class))
+            .isEqualTo(1);
+        assertThat(this.backfill.isComplete()).isFalse();
+
+        this.jdbcTemplate.update("delete from USERS where EMAIL = 'JANE@mail.com'");
+        this.backfill.run();
+
+        assertThat(this.backfill.isComplete()).isTrue();
+    }
+}
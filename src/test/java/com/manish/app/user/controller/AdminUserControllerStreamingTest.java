@@ -0,0 +1,104 @@
+package com.manish.app.user.controller;
+
+import com.manish.app.config.ApiConstants;
+import com.manish.app.config.StreamingAsyncConfig;
+import com.manish.app.user.export.UserExportService;
+import com.manish.app.user.importer.ImportFormat;
+import com.manish.app.user.importer.ImportSummary;
+import com.manish.app.user.importer.UserImportService;
+import com.manish.app.user.search.UserSearchService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Runs the streaming endpoints in a real servlet container, the only place async timeouts fire.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "spring.mvc.async.request-timeout=200ms")
+class AdminUserControllerStreamingTest {
+
+    private static final int LINES = 6;
+    private static final long PAUSE_MILLIS = 500;
+
+    @LocalServerPort
+    private int port;
+
+    @MockitoBean
+    private UserImportService userImportService;
+    @MockitoBean
+    private UserExportService userExportService;
+    @MockitoBean
+    private UserSearchService userSearchService;
+
+    @Configuration
+    @ImportAutoConfiguration({ServletWebServerFactoryAutoConfiguration.class, DispatcherServletAutoConfiguration.class,
+        WebMvcAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class, JacksonAutoConfiguration.class})
+    @Import({AdminUserController.class, StreamingAsyncConfig.class})
+    static class StreamingApp {
+    }
+
+    @Test
+    void exportStreamsPastTheDefaultAsyncTimeout() throws Exception {
+        doAnswer(invocation -> slowLines(invocation.getArgument(0)))
+            .when(this.userExportService).exportUsers(any());
+
+        final HttpResponse<String> response = send(HttpRequest.newBuilder(uri(ApiConstants.ADMIN_USERS_EXPORT)).GET());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body().lines()).hasSize(LINES);
+    }
+
+    @Test
+    void importStreamsPastTheDefaultAsyncTimeout() throws Exception {
+        doAnswer(invocation -> {
+            slowLines(invocation.getArgument(2));
+            return new ImportSummary(LINES, LINES, 0, LINES * PAUSE_MILLIS);
+        }).when(this.userImportService).importUsers(any(), eq(ImportFormat.NDJSON), any());
+
+        final HttpResponse<String> response = send(HttpRequest.newBuilder(uri(ApiConstants.ADMIN_USERS_IMPORT))
+            .header("Content-Type", ImportFormat.APPLICATION_NDJSON)
+            .POST(HttpRequest.BodyPublishers.ofString("{}\n")));
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body().lines()).hasSize(LINES);
+    }
+
+    private URI uri(final String path) {
+        return URI.create("http://localhost:" + this.port + ApiConstants.ADMIN_BASE + path);
+    }
+
+    private static HttpResponse<String> send(final HttpRequest.Builder request) throws Exception {
+        return HttpClient.newHttpClient().send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static long slowLines(final OutputStream output) throws Exception {
+        for (int i = 0; i < LINES; i++) {
+            output.write(("{\"line\":" + i + "}\n").getBytes(StandardCharsets.UTF_8));
+            output.flush();
+            Thread.sleep(PAUSE_MILLIS);
+        }
+        return LINES;
+    }
+}
@@ -0,0 +1,136 @@
+package com.manish.app.user.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.manish.app.role.Role;
+import com.manish.app.role.RoleRegistry;
+import com.manish.app.role.RoleRepository;
+import com.manish.app.user.entity.User;
+import com.manish.app.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import(UserExportServiceTest.Config.class)
+@TestPropertySource(properties = {
+    "spring.jpa.database=H2",
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "app.users.export.fetch-size=2"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserExportServiceTest {
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private UserExportService userExportService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void deleteUsers() {
+        this.userRepository.deleteAll();
+    }
+
+    @Test
+    void streamsEveryUserWithRolesAndWithoutPassword() {
+        new TransactionTemplate(this.transactionManager).executeWithoutResult(status -> saveUsers());
+        // the catalog is static, other tests may have loaded their own roles into it
+        RoleRegistry.load(this.roleRepository.findAll());
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        final long exported = this.userExportService.exportUsers(output);
+
+        final String ndjson = output.toString(StandardCharsets.UTF_8);
+        assertThat(exported).isEqualTo(5);
+        assertThat(ndjson.lines()).hasSize(5);
+        assertThat(ndjson).doesNotContain("secret").doesNotContain("password");
+        assertThat(ndjson).contains("\"roles\":[\"ROLE_ADMIN\",\"ROLE_USER\"]");
+    }
+
+    @Test
+    void endsAnInterruptedExportWithAFailureLine() {
+        new TransactionTemplate(this.transactionManager).executeWithoutResult(status -> saveUsers());
+        RoleRegistry.load(this.roleRepository.findAll());
+        // accepts the first fetch of users, then fails like a broken connection would
+        final ByteArrayOutputStream output = new ByteArrayOutputStream() {
+            private boolean failed;
+
+            @Override
+            public void flush() throws IOException {
+                if (!this.failed) {
+                    this.failed = true;
+                    throw new IOException("Broken pipe");
+                }
+            }
+        };
+
+        assertThatThrownBy(() -> this.userExportService.exportUsers(output))
+            .isInstanceOf(UncheckedIOException.class);
+
+        final List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(2)).isEqualTo("{\"error\":\"EXPORT_INTERRUPTED\",\"exported\":2}");
+    }
+
+    private void saveUsers() {
+        final Role userRole = role("ROLE_USER");
+        final Role adminRole = role("ROLE_ADMIN");
+        for (int i = 0; i < 5; i++) {
+            this.userRepository.save(User.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .email("john" + i + "@mail.com")
+                .phoneNumber("+91334455667" + i)
+                .password("{noop}secret")
+                .enabled(true)
+                .createdDate(LocalDateTime.now())
+                .roles(i == 0 ? Set.of(userRole, adminRole) : Set.of(userRole))
+                .build());
+        }
+    }
+
+    private Role role(final String name) {
+        // the application seeds the roles on startup
+        return this.roleRepository.findByName(name).orElseGet(() -> this.roleRepository.save(
+            Role.builder().name(name).bitIndex(this.roleRepository.nextBitIndex())
+                .createdBy("test").createdDate(LocalDateTime.now()).build()));
+    }
+
+    static class Config {
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper().registerModule(new JavaTimeModule());
+        }
+
+        @Bean
+        UserExportService userExportService(final PlatformTransactionManager transactionManager,
+            final ObjectMapper objectMapper, @Value("${app.users.export.fetch-size}") final int fetchSize) {
+            return new UserExportService(transactionManager, objectMapper, fetchSize);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.manish.app.user.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImportRowReaderTest {
+
+    @Test
+    void readsCsvByHeaderNamesWithQuotedFields() {
+        final ImportRowReader reader = reader(ImportFormat.CSV,
+            "email,firstName,lastName,phoneNumber,password\n"
+                + "john@mail.com,John,\"Doe, \"\"Jr\"\"\",+913344556677,Password123!\n"
+                + "\n"
+                + "jane@mail.com,Jane,\"unterminated\n");
+
+        final ImportRow first = reader.next();
+        assertThat(first.line()).isEqualTo(2);
+        assertThat(first.request().getLastName()).isEqualTo("Doe, \"Jr\"");
+        assertThat(first.request().getConfirmPassword()).isEqualTo("Password123!");
+
+        final ImportRow malformed = reader.next();
+        assertThat(malformed.line()).isEqualTo(4);
+        assertThat(malformed.parseError()).isEqualTo("MALFORMED_ROW");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void readsNdjsonRowsAndFlagsMalformedOnes() {
+        final ImportRowReader reader = reader(ImportFormat.NDJSON, """
+            {"email":"john@mail.com","firstName":"John"}
+            {"email":
+            """);
+
+        assertThat(reader.next().request().getFirstName()).isEqualTo("John");
+        assertThat(reader.next().parseError()).isEqualTo("MALFORMED_ROW");
+        assertThat(reader.next()).isNull();
+    }
+
+    private static ImportRowReader reader(final ImportFormat format, final String input) {
+        return new ImportRowReader(new BufferedReader(new StringReader(input)), format, new ObjectMapper());
+    }
+}
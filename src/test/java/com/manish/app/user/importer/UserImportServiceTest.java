@@ -0,0 +1,52 @@
+package com.manish.app.user.importer;
+
+import com.manish.app.exception.ErrorCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+class UserImportServiceTest {
+
+    private static final String INSERT = "insert into USERS (EMAIL, EMAIL_NORMALIZED, PHONE_NUMBER) values (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(
+        new DriverManagerDataSource("jdbc:h2:mem:user-import;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", ""));
+
+    @BeforeEach
+    void createSchema() {
+        this.jdbcTemplate.execute("drop all objects");
+        this.jdbcTemplate.execute("""
+            create table USERS (EMAIL varchar(255) not null, EMAIL_NORMALIZED varchar(255),
+                PHONE_NUMBER varchar(20) not null,
+                constraint UK_USERS_EMAIL unique (EMAIL),
+                constraint UK_USERS_PHONE_NUMBER unique (PHONE_NUMBER))""");
+        this.jdbcTemplate.execute("create unique index UK_USERS_EMAIL_NORMALIZED on USERS (EMAIL_NORMALIZED)");
+        this.jdbcTemplate.update(INSERT, "John@mail.com", "john@mail.com", "+33600000001");
+    }
+
+    @Test
+    void onlyUniqueEmailAndPhoneViolationsAreReportedAsExistingUsers() {
+        assertThat(rejectionCode("JOHN@mail.com", "john@mail.com", "+33600000002"))
+            .isEqualTo(ErrorCode.EMAIL_ALREADY_EXISTS);
+        assertThat(rejectionCode("John@mail.com", null, "+33600000002"))
+            .isEqualTo(ErrorCode.EMAIL_ALREADY_EXISTS);
+        assertThat(rejectionCode("jane@mail.com", "jane@mail.com", "+33600000001"))
+            .isEqualTo(ErrorCode.PHONE_ALREADY_EXISTS);
+        assertThat(rejectionCode(null, "jane@mail.com", "+33600000002"))
+            .isEqualTo(ErrorCode.INVALID_USER_DATA);
+        assertThat(rejectionCode("jane@mail.com", "jane@mail.com", "+33 6 00 00 00 02 ext. 1234"))
+            .isEqualTo(ErrorCode.INVALID_USER_DATA);
+    }
+
+    private ErrorCode rejectionCode(final String email, final String emailNormalized, final String phoneNumber) {
+        final DataIntegrityViolationException e = catchThrowableOfType(DataIntegrityViolationException.class,
+            () -> this.jdbcTemplate.update(INSERT, email, emailNormalized, phoneNumber));
+        assertThat(e).isNotNull();
+        return UserImportService.rejectionCode(e);
+    }
+}
@@ -0,0 +1,94 @@
+package com.manish.app.user.purge;
+
+import com.manish.app.common.id.BinaryUuid;
+import com.manish.app.common.id.UuidV7;
+import com.manish.app.config.CacheConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserPurgeEngineTest {
+
+    private static final byte[] ROLE_ID = BinaryUuid.toBytes(UuidV7.next().toString());
+
+    private final DataSource dataSource =
+        new DriverManagerDataSource("jdbc:h2:mem:user-purge;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSource);
+
+    @BeforeEach
+    void createSchema() {
+        this.jdbcTemplate.execute("drop all objects");
+        this.jdbcTemplate.execute("""
+            create table USERS (ID binary(16) primary key, EMAIL varchar(255) not null,
+                MARKED_FOR_DELETION boolean, MARKED_AT timestamp)""");
+        this.jdbcTemplate.execute("create table USERS_ROLES (USERS_ID binary(16) not null, ROLES_ID binary(16) not null)");
+        this.jdbcTemplate.execute("create table REFRESH_TOKENS (TOKEN_HASH varchar(64) primary key, USER_ID binary(16) not null)");
+    }
+
+    @Test
+    void purgesUsersMarkedBeforeTheCutoffInChunksWithTheirLinkedRows() {
+        final LocalDateTime cutoff = LocalDateTime.now().minusDays(1);
+        final List<String> purged = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            purged.add(insertUser(true, Timestamp.valueOf(cutoff.minusHours(1))));
+        }
+        final List<String> kept = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            kept.add(insertUser(true, Timestamp.valueOf(cutoff.plusHours(1))));
+            kept.add(insertUser(false, null));
+        }
+        final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.USER_DETAILS_CACHE);
+        final Cache cache = cacheManager.getCache(CacheConfig.USER_DETAILS_CACHE);
+        cache.put(purged.get(0) + "@mail.com", "purged");
+        cache.put(kept.get(0) + "@mail.com", "kept");
+        final UserPurgeEngine engine = new UserPurgeEngine(this.jdbcTemplate,
+            new DataSourceTransactionManager(this.dataSource), cacheManager, 10);
+
+        final PurgeReport report = engine.purgeMarkedBefore(cutoff);
+
+        assertThat(report.users()).isEqualTo(25);
+        assertThat(report.linkedRows()).isEqualTo(50);
+        assertThat(report.chunks()).isEqualTo(3);
+        for (final String id : purged) {
+            assertThat(rows(id)).containsExactly(0L, 0L, 0L);
+        }
+        for (final String id : kept) {
+            assertThat(rows(id)).containsExactly(1L, 1L, 1L);
+        }
+        assertThat(cache.get(purged.get(0) + "@mail.com")).isNull();
+        assertThat(cache.get(kept.get(0) + "@mail.com")).isNotNull();
+    }
+
+    private String insertUser(final boolean marked, final Timestamp markedAt) {
+        final String id = UuidV7.next().toString();
+        final byte[] binaryId = BinaryUuid.toBytes(id);
+        this.jdbcTemplate.update("insert into USERS values (?, ?, ?, ?)", binaryId, id + "@mail.com", marked, markedAt);
+        this.jdbcTemplate.update("insert into USERS_ROLES values (?, ?)", binaryId, ROLE_ID);
+        this.jdbcTemplate.update("insert into REFRESH_TOKENS values (?, ?)", UUID.randomUUID().toString(), binaryId);
+        return id;
+    }
+
+    /**
+     * @return the rows of the user in USERS, USERS_ROLES and REFRESH_TOKENS
+     */
+    private List<Long> rows(final String id) {
+        final byte[] binaryId = BinaryUuid.toBytes(id);
+        return List.of(
+            this.jdbcTemplate.queryForObject("select count(*) from USERS where ID = ?", Long.class, binaryId),
+            this.jdbcTemplate.queryForObject("select count(*) from USERS_ROLES where USERS_ID = ?", Long.class, binaryId),
+            this.jdbcTemplate.queryForObject("select count(*) from REFRESH_TOKENS where USER_ID = ?", Long.class, binaryId));
+    }
+}
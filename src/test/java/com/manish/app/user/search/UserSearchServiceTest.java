@@ -0,0 +1,78 @@
+package com.manish.app.user.search;
+
+import com.manish.app.exception.BusinessException;
+import com.manish.app.user.entity.User;
+import com.manish.app.user.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import(UserSearchService.class)
+@TestPropertySource(properties = {
+    "spring.jpa.database=H2",
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+class UserSearchServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UserSearchService userSearchService;
+
+    @Test
+    void pagesThroughMatchingUsersNewestFirst() {
+        for (int i = 0; i < 7; i++) {
+            // users 3 and 4 share a creation date, the id breaks the tie
+            saveUser("john" + i + "@mail.com", i != 5, START.plusHours(i == 4 ? 3 : i));
+        }
+        saveUser("jane@mail.com", true, START);
+        final UserSearchCriteria criteria = new UserSearchCriteria(true, null, null, "john", null, null);
+
+        final List<String> emails = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            final UserSearchPage page = this.userSearchService.search(criteria, cursor, 2);
+            page.items().forEach(user -> emails.add(user.email()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(emails).hasSize(6).doesNotHaveDuplicates().doesNotContain("john5@mail.com", "jane@mail.com");
+        assertThat(emails.subList(0, 1)).containsExactly("john6@mail.com");
+        assertThat(emails.subList(4, 6)).containsExactly("john1@mail.com", "john0@mail.com");
+    }
+
+    @Test
+    void rejectsTamperedCursor() {
+        final UserSearchCriteria criteria = new UserSearchCriteria(null, null, null, null, null, null);
+
+        assertThatThrownBy(() -> this.userSearchService.search(criteria, "bm90LWEtY3Vyc29y", 10))
+            .isInstanceOf(BusinessException.class);
+    }
+
+    private void saveUser(final String email, final boolean enabled, final LocalDateTime createdDate) {
+        this.userRepository.save(User.builder()
+            .firstName("John")
+            .lastName("Doe")
+            .email(email)
+            .phoneNumber(email)
+            .password("{noop}secret")
+            .enabled(enabled)
+            .createdDate(createdDate)
+            .build());
+    }
+}
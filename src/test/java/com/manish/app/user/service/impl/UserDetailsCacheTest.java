@@ -0,0 +1,145 @@
+package com.manish.app.user.service.impl;
+
+import com.manish.app.audit.AuthAuditLog;
+import com.manish.app.auth.refresh.RefreshTokenStore;
+import com.manish.app.config.CacheConfig;
+import com.manish.app.role.RoleRepository;
+import com.manish.app.security.PasswordHashingExecutor;
+import com.manish.app.security.PrincipalVersionTracker;
+import com.manish.app.security.UserSnapshot;
+import com.manish.app.user.backfill.EmailNormalizationBackfill;
+import com.manish.app.user.entity.User;
+import com.manish.app.user.mapper.UserMapper;
+import com.manish.app.user.purge.UserPurgeEngine;
+import com.manish.app.user.repository.UserRepository;
+import com.manish.app.user.request.ProfileUpdateRequest;
+import com.manish.app.user.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringJUnitConfig(UserDetailsCacheTest.Config.class)
+class UserDetailsCacheTest {
+
+    @Configuration
+    @Import({CacheConfig.class, UserServiceImpl.class})
+    static class Config {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new CaffeineCacheManager(CacheConfig.USER_DETAILS_CACHE);
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private UserService userService;
+    @MockitoBean
+    private UserRepository userRepository;
+    @MockitoBean
+    private RoleRepository roleRepository;
+    @MockitoBean
+    private PasswordEncoder passwordEncoder;
+    @MockitoBean
+    private PasswordHashingExecutor passwordHashingExecutor;
+    @MockitoBean
+    private UserMapper userMapper;
+    @MockitoBean
+    private PrincipalVersionTracker principalVersionTracker;
+    @MockitoBean
+    private RefreshTokenStore refreshTokenStore;
+    @MockitoBean
+    private UserPurgeEngine userPurgeEngine;
+    @MockitoBean
+    private EmailNormalizationBackfill emailNormalizationBackfill;
+    @MockitoBean
+    private AuthAuditLog authAuditLog;
+    @MockitoBean
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void concurrentMissesShareOneQueryAndGetAnImmutableSnapshot() throws Exception {
+        final User john = user("6f1c2a9e-4d1b-4c57-9a55-0c7d3f0e1b2a", "john@mail.com");
+        final CountDownLatch release = new CountDownLatch(1);
+        when(this.userRepository.findByEmailNormalized("john@mail.com")).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(john);
+        });
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<UserDetails>> loads = IntStream.range(0, 8)
+                .mapToObj(i -> executor.submit(() -> this.userService.loadUserByUsername(
+                    i % 2 == 0 ? "john@mail.com" : "John@Mail.com")))
+                .toList();
+            // let every caller reach the cache before the first query returns
+            Thread.sleep(200);
+            release.countDown();
+
+            final UserDetails first = loads.get(0).get(5, TimeUnit.SECONDS);
+            for (final Future<UserDetails> load : loads) {
+                assertThat(load.get(5, TimeUnit.SECONDS)).isSameAs(first);
+            }
+            assertThat(first).isInstanceOf(UserSnapshot.class);
+            assertThat(first.getPassword()).isNull();
+            verify(this.userRepository, times(1)).findByEmailNormalized("john@mail.com");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void accountChangeEvictsOnlyThatUser() {
+        final User jane = user("0190a5c3-5b7e-7c1a-9d2e-3f4a5b6c7d8e", "jane@mail.com");
+        final User mary = user("0190a5c3-5b7e-7c1a-9d2e-3f4a5b6c7d8f", "mary@mail.com");
+        when(this.userRepository.findByEmailNormalized("jane@mail.com")).thenReturn(Optional.of(jane));
+        when(this.userRepository.findByEmailNormalized("mary@mail.com")).thenReturn(Optional.of(mary));
+        when(this.userRepository.findById(jane.getId())).thenReturn(Optional.of(jane));
+        this.userService.loadUserByUsername("jane@mail.com");
+        this.userService.loadUserByUsername("mary@mail.com");
+
+        this.userService.updateProfileInfo(new ProfileUpdateRequest(), jane.getId());
+        this.userService.loadUserByUsername("jane@mail.com");
+        this.userService.loadUserByUsername("mary@mail.com");
+
+        verify(this.userRepository, times(2)).findByEmailNormalized("jane@mail.com");
+        verify(this.userRepository, times(1)).findByEmailNormalized("mary@mail.com");
+    }
+
+    private static User user(final String id, final String email) {
+        return User.builder()
+            .id(id)
+            .email(email)
+            .password("{noop}secret")
+            .enabled(true)
+            .build();
+    }
+}